@@ -0,0 +1,86 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import me.Domplanto.streamLabs.action.ActionExecutor;
+import me.Domplanto.streamLabs.action.CommandScheduler;
+import me.Domplanto.streamLabs.action.EventAggregator;
+import me.Domplanto.streamLabs.action.MessageBatch;
+import me.Domplanto.streamLabs.config.ConfigSnapshot;
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import me.Domplanto.streamLabs.events.DecodedEvent;
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.StreamlabsEventDecoder;
+import me.Domplanto.streamLabs.events.StreamlabsEventIndex;
+import me.Domplanto.streamLabs.metrics.PipelineMetrics;
+import me.Domplanto.streamLabs.player.AffectedPlayerRegistry;
+import me.Domplanto.streamLabs.throttle.ThrottleEngine;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Everything that happens to a decoded event on the processing thread: placeholder lookup, condition checks,
+ * placeholder rendering and scheduling the messages and commands.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActionExecutorBenchmark {
+    @Param({Payloads.DONATION, Payloads.TWITCH_SUBSCRIPTION, Payloads.TWITCH_FOLLOW, Payloads.YOUTUBE_SUPERCHAT})
+    public String payload;
+    private ScheduledExecutorService scheduler;
+    private ActionExecutor executor;
+    private DecodedEvent event;
+
+    @Setup
+    public void setup(Blackhole blackhole) throws IOException {
+        JavaPlugin plugin = BukkitStubs.plugin("/benchmark-config.yml");
+        StreamlabsEventIndex eventIndex = new StreamlabsEventIndex(StreamlabsEvent.findEventClasses());
+        PipelineMetrics metrics = new PipelineMetrics();
+        ConfigSnapshot snapshot = ConfigSnapshot.of(plugin.getConfig(), eventIndex.getEvents(), plugin.getLogger());
+        AffectedPlayerRegistry affectedPlayers = new AffectedPlayerRegistry();
+        affectedPlayers.load(StreamerProfile.DEFAULT_ID, plugin.getConfig().getStringList("affected_players"), List.of());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.executor = new ActionExecutor(snapshot, new BlackholeCommandScheduler(plugin, metrics, blackhole), affectedPlayers,
+                new EventAggregator(scheduler, plugin.getLogger()), new ThrottleEngine(scheduler, 100, 10, plugin.getLogger()), metrics);
+        String frame = Payloads.frame(payload);
+        this.event = Objects.requireNonNull(new StreamlabsEventDecoder(eventIndex).decode(frame, frame.indexOf('[')));
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public void execute() {
+        executor.execute(event);
+    }
+
+    /**
+     * Consumes scheduled commands and messages instead of queueing them for a server tick that never comes.
+     */
+    private static class BlackholeCommandScheduler extends CommandScheduler {
+        private final Blackhole blackhole;
+
+        private BlackholeCommandScheduler(JavaPlugin plugin, PipelineMetrics metrics, Blackhole blackhole) {
+            super(plugin, metrics, 1, 1);
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void schedule(@NotNull MessageBatch messages) {
+            blackhole.consume(messages);
+        }
+    }
+}
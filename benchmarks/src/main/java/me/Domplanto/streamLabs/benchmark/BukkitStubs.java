@@ -0,0 +1,102 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import org.bukkit.Server;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Minimal stand-ins for the Bukkit types used on the event processing path, every method that is not
+ * needed does nothing and returns the default value of its return type.
+ */
+public final class BukkitStubs {
+    private static final Logger LOGGER = Logger.getLogger("StreamLabsBenchmark");
+
+    private BukkitStubs() {
+    }
+
+    public static Server server() {
+        Map<String, Player> players = new ConcurrentHashMap<>();
+        return proxy(Server.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getLogger" -> LOGGER;
+            case "getName", "getVersion", "getBukkitVersion" -> "Benchmark";
+            case "getPlayerExact", "getPlayer" -> args[0] instanceof String name ? players.computeIfAbsent(name, BukkitStubs::player) : null;
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    public static Player player(String name) {
+        return proxy(Player.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName", "getDisplayName" -> name;
+            case "isOnline" -> true;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "BenchmarkPlayer[" + name + "]";
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * @param configResource The resource that is returned by {@link JavaPlugin#getConfig()}
+     */
+    @SuppressWarnings("deprecation")
+    public static JavaPlugin plugin(String configResource) {
+        Server server = server();
+        return new BenchmarkPlugin(new JavaPluginLoader(server), loadConfig(configResource));
+    }
+
+    public static YamlConfiguration loadConfig(String resource) {
+        try (InputStreamReader reader = new InputStreamReader(
+                Objects.requireNonNull(BukkitStubs.class.getResourceAsStream(resource), resource), StandardCharsets.UTF_8)) {
+            return YamlConfiguration.loadConfiguration(reader);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load " + resource, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(BukkitStubs.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == long.class) return 0L;
+        if (type == int.class) return 0;
+        if (type == short.class) return (short) 0;
+        return (byte) 0;
+    }
+
+    private static class BenchmarkPlugin extends JavaPlugin {
+        private final FileConfiguration config;
+
+        private BenchmarkPlugin(JavaPluginLoader loader, FileConfiguration config) {
+            super(loader, new PluginDescriptionFile("StreamLabs", "benchmark", BenchmarkPlugin.class.getName()),
+                    new File("target/benchmark-plugin"), new File("target/benchmark-plugin.jar"));
+            this.config = config;
+        }
+
+        @Override
+        public @NotNull FileConfiguration getConfig() {
+            return config;
+        }
+    }
+}
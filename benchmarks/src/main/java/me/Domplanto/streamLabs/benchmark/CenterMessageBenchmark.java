@@ -0,0 +1,68 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import me.Domplanto.streamLabs.font.DefaultFontInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CenterMessageBenchmark {
+    @Param({
+            "§a§lThank you codingcat24!",
+            "§l§6codingcat24 §r§9donated €25.00! §7\"cats are cool, keep up the great streams!\"",
+            "Danke für die Unterstützung, Käthe! ✦"
+    })
+    public String message;
+
+    /**
+     * The same message is centered again for every affected player, so this is a cache hit
+     */
+    @Benchmark
+    public String centerMessage() {
+        return DefaultFontInfo.centerMessage(message);
+    }
+
+    @Benchmark
+    public String padToCenter() {
+        return DefaultFontInfo.padToCenter(message);
+    }
+
+    /**
+     * The implementation before the width table, which looked up every char with a scan over the enum values
+     */
+    @Benchmark
+    public String linearScan() {
+        int messagePxSize = 0;
+        boolean isBold = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '§') continue;
+            if (i > 0 && message.charAt(i - 1) == '§') {
+                isBold = c == 'l' || c == 'L';
+                continue;
+            }
+
+            DefaultFontInfo dFI = Arrays.stream(DefaultFontInfo.values())
+                    .filter(info -> info.getCharacter() == c)
+                    .findFirst().orElse(DefaultFontInfo.DEFAULT);
+            messagePxSize += isBold ? dFI.getBoldLength() : dFI.getLength();
+            messagePxSize++;
+        }
+
+        int spacePixelAmount = 154 - (messagePxSize / 2);
+        int compensated = 0;
+        StringBuilder sb = new StringBuilder();
+        while (compensated < spacePixelAmount) {
+            sb.append(" ");
+            compensated += DefaultFontInfo.SPACE.getLength() + 1;
+        }
+
+        return sb + message;
+    }
+}
@@ -0,0 +1,53 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import me.Domplanto.streamLabs.condition.Condition;
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.PlaceholderRegistry;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a condition for one event. Conditions are compiled when the config is loaded, {@link #parseAndCheck()} is
+ * the previous approach of parsing the condition string for every event. The padding makes the condition string longer
+ * without changing what is evaluated, the compiled check should take the same time for every padding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionBenchmark {
+    @Param({"{amount}>10", "{amount_double}<={amount}", "{message}.>cats are cool", "{user}=codingcat24", "!{currency}=USD", "({amount}>100 || {message}.>cats) && !{user}=codingcat24"})
+    public String condition;
+    @Param({"0", "100", "1000"})
+    public int padding;
+    private String paddedCondition;
+    private Condition compiled;
+    private PlaceholderRegistry placeholders;
+    private EventPayload payload;
+
+    @Setup
+    public void setup() {
+        BasicDonationEvent event = new BasicDonationEvent();
+        this.paddedCondition = " ".repeat(padding) + condition;
+        this.compiled = Condition.parse(paddedCondition);
+        this.placeholders = PlaceholderRegistry.of(event, List.of());
+        this.payload = Payloads.payload(Payloads.DONATION, event);
+    }
+
+    @Benchmark
+    public boolean check() {
+        // A new context per check, so no placeholder value is cached from the previous one
+        return compiled.check(new EventContext(placeholders, payload));
+    }
+
+    @Benchmark
+    public boolean parseAndCheck() {
+        return Condition.parse(paddedCondition).check(new EventContext(placeholders, payload));
+    }
+}
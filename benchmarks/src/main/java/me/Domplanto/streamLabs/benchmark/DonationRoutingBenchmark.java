@@ -0,0 +1,72 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.PlaceholderRegistry;
+import me.Domplanto.streamLabs.config.RewardsConfig;
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.payload.BasicDonationPayload;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Finding the actions of a donation in a config with one action per amount tier ({@code EUR>=n} and {@code EUR<n+1}),
+ * with the donation index and by checking the donation conditions of every action.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DonationRoutingBenchmark {
+    @Param({"10", "100", "1000"})
+    public int tiers;
+    private RewardsConfig rewardsConfig;
+    private PlaceholderRegistry placeholders;
+    private EventPayload payload;
+
+    @Setup
+    public void setup() {
+        StringBuilder config = new StringBuilder("actions:\n");
+        for (int tier = 0; tier < tiers; tier++)
+            config.append(String.format("""
+                      tier_%1$d:
+                        action: streamlabs_donation
+                        donation_conditions: ["EUR>=%1$d", "EUR<%2$d"]
+                        commands: ["say Tier %1$d"]
+                    """, tier, tier + 1));
+
+        BasicDonationEvent event = new BasicDonationEvent();
+        this.rewardsConfig = new RewardsConfig(YamlConfiguration.loadConfiguration(new StringReader(config.toString())),
+                List.of(event), Logger.getLogger("StreamLabsBenchmark"));
+        this.placeholders = rewardsConfig.getPlaceholders(event);
+        this.payload = new BasicDonationPayload("codingcat24", tiers / 2 + 0.5, "EUR", "", "");
+    }
+
+    @Benchmark
+    public RewardsConfig.Action indexed() {
+        EventContext context = new EventContext(placeholders, payload);
+        return findMatch(rewardsConfig.getCandidateActions(context), context);
+    }
+
+    @Benchmark
+    public RewardsConfig.Action linear() {
+        return findMatch(rewardsConfig.getActionsForEvent(placeholders.getEvent().getId()), new EventContext(placeholders, payload));
+    }
+
+    private RewardsConfig.Action findMatch(List<RewardsConfig.Action> actions, EventContext context) {
+        StreamlabsEvent event = context.getEvent();
+        RewardsConfig.Action match = null;
+        for (RewardsConfig.Action action : actions)
+            if (event.checkConditions(action, context)) match = action;
+
+        return match;
+    }
+}
@@ -0,0 +1,66 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.StreamlabsEventDecoder;
+import me.Domplanto.streamLabs.events.StreamlabsEventIndex;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Socket frames recorded from Streamlabs (user names and ids replaced), stored in {@code /payloads}.
+ */
+public final class Payloads {
+    public static final String DONATION = "donation";
+    public static final String TWITCH_SUBSCRIPTION = "twitch_subscription";
+    public static final String TWITCH_FOLLOW = "twitch_follow";
+    public static final String YOUTUBE_SUPERCHAT = "youtube_superchat";
+    public static final String ALERT_PLAYING = "alert_playing";
+    public static final String STREAMLABELS = "streamlabels";
+
+    private Payloads() {
+    }
+
+    /**
+     * @return The raw frame including the socket.io packet code
+     */
+    public static String frame(String name) {
+        String resource = "/payloads/" + name + ".txt";
+        try (InputStream stream = Objects.requireNonNull(Payloads.class.getResourceAsStream(resource), resource)) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8).strip();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load " + resource, e);
+        }
+    }
+
+    /**
+     * @return The json part of the frame, as passed on by the socket client
+     */
+    public static String data(String name) {
+        String frame = frame(name);
+        return frame.substring(dataOffset(frame));
+    }
+
+    /**
+     * @return The alert of the frame bound to the payload of the event, the same way the socket client does it
+     */
+    public static EventPayload payload(String name, StreamlabsEvent event) {
+        String frame = frame(name);
+        try {
+            return new StreamlabsEventDecoder(new StreamlabsEventIndex(List.of(event))).readPayload(frame, dataOffset(frame), event);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode " + name, e);
+        }
+    }
+
+    private static int dataOffset(String frame) {
+        int start = 0;
+        while (start < frame.length() && Character.isDigit(frame.charAt(start)))
+            start++;
+        return start;
+    }
+}
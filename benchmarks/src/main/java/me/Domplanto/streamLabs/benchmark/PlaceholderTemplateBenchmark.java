@@ -0,0 +1,46 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.PlaceholderRegistry;
+import me.Domplanto.streamLabs.config.PlaceholderTemplate;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placeholder replacement of messages and commands, which are compiled into templates when the config is loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceholderTemplateBenchmark {
+    @Param({
+            "§aThank you for the support!",
+            "§l§6{user} §r§9donated {amount_formatted}!",
+            "execute at {player} run summon zombie ~ ~ ~ {CustomName:'[{\"text\":\"{user}\"}]'}",
+            "xp add {player} {amount*10} points"
+    })
+    public String template;
+    private PlaceholderTemplate compiled;
+    private PlaceholderRegistry placeholders;
+    private EventPayload payload;
+
+    @Setup
+    public void setup() {
+        BasicDonationEvent event = new BasicDonationEvent();
+        this.compiled = PlaceholderTemplate.compile(template);
+        this.placeholders = PlaceholderRegistry.of(event, List.of());
+        this.payload = Payloads.payload(Payloads.DONATION, event);
+    }
+
+    @Benchmark
+    public String render() {
+        return compiled.render(new EventContext(placeholders, payload));
+    }
+}
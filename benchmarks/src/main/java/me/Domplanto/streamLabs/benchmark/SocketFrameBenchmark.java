@@ -0,0 +1,50 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.StreamlabsEventDecoder;
+import me.Domplanto.streamLabs.events.StreamlabsEventIndex;
+import me.Domplanto.streamLabs.socket.StreamlabsSocketClient;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Handling of a raw socket frame up to the point where it is passed on to the event queue,
+ * frames of event types without an event class are dropped before their alert is bound to a payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SocketFrameBenchmark {
+    @Param({Payloads.DONATION, Payloads.TWITCH_SUBSCRIPTION, Payloads.YOUTUBE_SUPERCHAT, Payloads.ALERT_PLAYING, Payloads.STREAMLABELS})
+    public String payload;
+    private ScheduledExecutorService scheduler;
+    private StreamlabsSocketClient client;
+    private String frame;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        StreamlabsEventIndex eventIndex = new StreamlabsEventIndex(StreamlabsEvent.findEventClasses());
+        this.client = new StreamlabsSocketClient(StreamlabsSocketClient.DEFAULT_SOCKET_URL, "benchmark", Logger.getLogger("StreamLabsBenchmark"),
+                new StreamlabsEventDecoder(eventIndex), blackhole::consume, scheduler);
+        this.frame = Payloads.frame(payload);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public void onMessage() {
+        client.onMessage(frame);
+    }
+}
@@ -0,0 +1,51 @@
+package me.Domplanto.streamLabs.benchmark;
+
+import me.Domplanto.streamLabs.condition.Operator;
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reflections.Reflections;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Creating the event classes and operators the first time, as the plugin does when it is enabled.
+ * Every measurement runs in a new JVM, so nothing is loaded yet.
+ * <p>
+ * {@link #scanClasspath} is the baseline, it finds the classes with Reflections like the plugin did
+ * before the registry was generated at compile time.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    @Benchmark
+    public void createComponents(Blackhole blackhole) {
+        blackhole.consume(StreamlabsEvent.findEventClasses());
+        blackhole.consume(Operator.getRegisteredOperators());
+    }
+
+    @Benchmark
+    public void scanClasspath(Blackhole blackhole) {
+        blackhole.consume(findClasses(StreamlabsEvent.class));
+        blackhole.consume(findClasses(Operator.class));
+    }
+
+    private static <T> Set<? extends T> findClasses(Class<T> superType) {
+        return new Reflections(superType.getPackageName())
+                .getSubTypesOf(superType)
+                .stream()
+                .map(cls -> {
+                    try {
+                        return cls.getConstructor().newInstance();
+                    } catch (ReflectiveOperationException ignored) {
+                        return null;
+                    }
+                })
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,139 @@
+package me.Domplanto.streamLabs.replay;
+
+import me.Domplanto.streamLabs.socket.replay.FrameRecorder;
+import me.Domplanto.streamLabs.socket.replay.RecordedFrame;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A local stand-in for {@code sockets.streamlabs.com} that plays a recording made by the {@link FrameRecorder}
+ * back to every client that connects. Point {@code streamlabs.socket_url} at it, for example {@code ws://localhost:8080}.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar me.Domplanto.streamLabs.replay.ReplayServer <recording> [--port 8080] [--speed 1|<factor>|max] [--loop]}
+ */
+public class ReplayServer extends WebSocketServer {
+    private static final Logger LOGGER = Logger.getLogger(ReplayServer.class.getName());
+    private static final String PING = "2";
+    private static final String PONG = "3";
+    private final List<RecordedFrame> frames;
+    private final double speed;
+    private final boolean loop;
+    private final Map<WebSocket, Thread> playbacks = new ConcurrentHashMap<>();
+
+    /**
+     * @param speed How much faster than recorded the frames are sent, {@link Double#POSITIVE_INFINITY} sends them without any delay
+     */
+    public ReplayServer(InetSocketAddress address, List<RecordedFrame> frames, double speed, boolean loop) {
+        super(address);
+        this.frames = frames.stream()
+                .filter(frame -> !frame.frame().equals(PONG))
+                .toList();
+        this.speed = speed;
+        this.loop = loop;
+        this.setReuseAddr(true);
+    }
+
+    @Override
+    public void onOpen(WebSocket connection, ClientHandshake handshake) {
+        LOGGER.info(String.format("Client connected from %s, replaying %d frames", connection.getRemoteSocketAddress(), frames.size()));
+        Thread playback = new Thread(() -> this.play(connection), "Replay to " + connection.getRemoteSocketAddress());
+        playback.setDaemon(true);
+        this.playbacks.put(connection, playback);
+        playback.start();
+    }
+
+    private void play(WebSocket connection) {
+        do {
+            long startNanos = System.nanoTime();
+            long firstTimestamp = frames.isEmpty() ? 0 : frames.get(0).timestamp();
+            int sent = 0;
+            for (RecordedFrame frame : frames) {
+                if (Double.isFinite(speed)) {
+                    long targetNanos = startNanos + (long) ((frame.timestamp() - firstTimestamp) * 1_000_000 / speed);
+                    long waitNanos;
+                    while ((waitNanos = targetNanos - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                        if (Thread.currentThread().isInterrupted()) return;
+                    }
+                }
+                if (!connection.isOpen()) return;
+
+                connection.send(frame.frame());
+                sent++;
+            }
+
+            LOGGER.info(String.format("Replayed %d frames to %s in %d ms", sent, connection.getRemoteSocketAddress(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        } while (loop && connection.isOpen());
+    }
+
+    @Override
+    public void onMessage(WebSocket connection, String message) {
+        if (message.equals(PING))
+            connection.send(PONG);
+    }
+
+    @Override
+    public void onClose(WebSocket connection, int code, String reason, boolean remote) {
+        Thread playback = this.playbacks.remove(connection);
+        if (playback != null)
+            playback.interrupt();
+        LOGGER.info(String.format("Client %s disconnected", connection.getRemoteSocketAddress()));
+    }
+
+    @Override
+    public void onError(WebSocket connection, Exception e) {
+        LOGGER.log(Level.WARNING, String.format("Error on the connection to %s",
+                connection != null ? connection.getRemoteSocketAddress() : "the replay server"), e);
+    }
+
+    @Override
+    public void onStart() {
+        LOGGER.info(String.format("Replay server listening on ws://localhost:%d (speed: %s%s)", getPort(),
+                Double.isFinite(speed) ? speed + "x" : "max", loop ? ", looping" : ""));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            LOGGER.severe("Usage: ReplayServer <recording> [--port 8080] [--speed 1|<factor>|max] [--loop]");
+            System.exit(1);
+        }
+
+        int port = 8080;
+        double speed = 1;
+        boolean loop = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--speed" -> {
+                    String value = args[++i];
+                    speed = value.equalsIgnoreCase("max") ? Double.POSITIVE_INFINITY : Double.parseDouble(value.replace("x", ""));
+                }
+                case "--loop" -> loop = true;
+                default -> {
+                    LOGGER.severe(String.format("Unknown option \"%s\"", args[i]));
+                    System.exit(1);
+                }
+            }
+        }
+
+        if (!(speed > 0)) {
+            LOGGER.severe("The speed has to be greater than 0");
+            System.exit(1);
+        }
+
+        List<RecordedFrame> frames = RecordedFrame.readAll(Path.of(args[0]));
+        new ReplayServer(new InetSocketAddress(port), frames, speed, loop).run();
+    }
+}
@@ -1,88 +1,387 @@
 package me.Domplanto.streamLabs;
 
-import com.google.gson.JsonElement;
 import me.Domplanto.streamLabs.action.ActionExecutor;
+import me.Domplanto.streamLabs.action.CommandScheduler;
+import me.Domplanto.streamLabs.action.EventAggregator;
 import me.Domplanto.streamLabs.command.SubCommand;
+import me.Domplanto.streamLabs.config.ConfigSnapshot;
 import me.Domplanto.streamLabs.config.RewardsConfig;
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import me.Domplanto.streamLabs.events.DecodedEvent;
 import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.StreamlabsEventDecoder;
+import me.Domplanto.streamLabs.events.StreamlabsEventIndex;
+import me.Domplanto.streamLabs.ingest.EventIngestQueue;
+import me.Domplanto.streamLabs.ingest.OverflowPolicy;
+import me.Domplanto.streamLabs.metrics.PipelineMetrics;
+import me.Domplanto.streamLabs.player.AffectedPlayerRegistry;
+import me.Domplanto.streamLabs.socket.ReconnectSupervisor;
+import me.Domplanto.streamLabs.socket.StreamerConnection;
 import me.Domplanto.streamLabs.socket.StreamlabsSocketClient;
+import me.Domplanto.streamLabs.socket.replay.FrameRecorder;
+import me.Domplanto.streamLabs.throttle.ThrottleEngine;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.java_websocket.handshake.ServerHandshake;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-import java.util.Set;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
 
 public class StreamLabs extends JavaPlugin {
     private static final Set<? extends StreamlabsEvent> STREAMLABS_EVENTS = StreamlabsEvent.findEventClasses();
+    private static final StreamlabsEventIndex EVENT_INDEX = new StreamlabsEventIndex(STREAMLABS_EVENTS);
     private final Set<? extends SubCommand> SUB_COMMANDS = SubCommand.findSubCommandClasses(this);
-    private static boolean DEBUG_MODE = false;
-    private StreamlabsSocketClient socketClient;
-    private RewardsConfig rewardsConfig;
+    private static volatile boolean DEBUG_MODE = false;
+    private ScheduledExecutorService socketExecutor;
+    private ExecutorService connectExecutor;
+    private final Map<String, StreamerConnection> connections = new ConcurrentHashMap<>();
+    private FrameRecorder frameRecorder;
+    private EventIngestQueue eventQueue;
+    private CommandScheduler commandScheduler;
+    private EventAggregator eventAggregator;
+    private ThrottleEngine throttleEngine;
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private final AffectedPlayerRegistry affectedPlayers = new AffectedPlayerRegistry();
+    private final AtomicReference<ActionExecutor> actionExecutor = new AtomicReference<>();
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
 
-        FileConfiguration config = getConfig();
-        String socketToken = config.getString("streamlabs.socket_token", "");
-        DEBUG_MODE = config.getBoolean("debug_mode", false);
-        this.rewardsConfig = new RewardsConfig(config);
-        if (socketToken.isEmpty()) {
+        ConfigSnapshot snapshot;
+        try {
+            snapshot = this.loadConfigSnapshot();
+        } catch (IOException | InvalidConfigurationException e) {
+            getLogger().log(Level.SEVERE, "Failed to load config.yml, using the values Bukkit could read", e);
+            snapshot = ConfigSnapshot.of(super.getConfig(), EVENT_INDEX.getEvents(), getLogger());
+        }
+        FileConfiguration config = snapshot.config();
+        DEBUG_MODE = snapshot.debugMode();
+        this.metrics.registerMBean(getLogger());
+        this.commandScheduler = new CommandScheduler(this, this.metrics,
+                config.getInt("command_scheduler.max_commands_per_tick", 20),
+                config.getLong("command_scheduler.max_milliseconds_per_tick", 10));
+        this.commandScheduler.start();
+        this.affectedPlayers.load(getAffectedPlayerNames(snapshot), getServer().getOnlinePlayers());
+        getServer().getPluginManager().registerEvents(this.affectedPlayers, this);
+        this.socketExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Streamlabs socket executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Connecting blocks while an open connection is closed, which must not hold up the socket executor
+        this.connectExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Streamlabs connector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.eventAggregator = new EventAggregator(this.socketExecutor, getLogger());
+        this.throttleEngine = new ThrottleEngine(this.socketExecutor, config.getInt("throttling.max_waiting", 100),
+                config.getInt("throttling.max_waiting_per_user", 10), getLogger());
+        this.actionExecutor.set(new ActionExecutor(snapshot, this.commandScheduler, this.affectedPlayers,
+                this.eventAggregator, this.throttleEngine, this.metrics));
+        if (snapshot.streamers().values().stream().allMatch(streamer -> streamer.socketToken().isEmpty())) {
             getLogger().warning("Streamlabs socket token not configured!");
             getLogger().warning("Please set your token in config.yml");
         }
 
-        this.socketClient = new StreamlabsSocketClient(socketToken, getLogger(), this::onStreamlabsEvent)
-                .setConnectionOpenListener(this::onConnectionOpen)
-                .setConnectionCloseListener(this::onConnectionClosed)
-                .setInvalidTokenListener(this::onInvalidSocketToken);
-        this.socketClient.connect();
+        this.eventQueue = new EventIngestQueue(
+                config.getInt("event_queue.capacity", 1024),
+                OverflowPolicy.parse(config.getString("event_queue.overflow_policy"), OverflowPolicy.BLOCK, getLogger()),
+                config.getInt("event_queue.deduplication_history", 1000),
+                this::onStreamlabsEvent, getLogger());
+        this.eventQueue.start();
+        String recordingFile = config.getString("streamlabs.recording_file", "");
+        if (!recordingFile.isEmpty()) {
+            try {
+                this.frameRecorder = new FrameRecorder(getDataFolder().toPath().resolve(recordingFile), getLogger());
+                getLogger().info(String.format("Recording socket traffic to %s", this.frameRecorder.getFile()));
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Failed to open the recording file", e);
+            }
+        }
+
+        for (StreamerProfile streamer : snapshot.streamers().values()) {
+            StreamerConnection connection = this.createConnection(streamer, snapshot);
+            this.connections.put(streamer.id(), connection);
+            if (!streamer.socketToken().isEmpty())
+                connection.reconnectSupervisor().connect();
+        }
     }
 
-    private void onConnectionOpen(ServerHandshake handshake) {
-        if (this.showStatusMessages())
-            Bukkit.broadcastMessage(ChatColor.GREEN + "Successfully connected to Streamlabs!");
+    /**
+     * All connections share the socket executor for timing reconnects and keep-alive messages and the connect executor
+     * for connection attempts, and feed the same event queue.
+     */
+    private StreamerConnection createConnection(StreamerProfile streamer, ConfigSnapshot snapshot) {
+        FileConfiguration config = snapshot.config();
+        StreamlabsSocketClient socketClient = new StreamlabsSocketClient(snapshot.socketUrl(), streamer.socketToken(), getLogger(),
+                new StreamlabsEventDecoder(EVENT_INDEX, streamer.id()).setMetrics(this.metrics), this.eventQueue::offer, this.socketExecutor)
+                .setName(streamer.id().equals(StreamerProfile.DEFAULT_ID) ? null : streamer.id())
+                .setDebugLogging(StreamLabs::isDebugMode)
+                .setMetrics(this.metrics)
+                .setFrameRecorder(this.frameRecorder);
+        ReconnectSupervisor reconnectSupervisor = new ReconnectSupervisor(socketClient, this.socketExecutor, this.connectExecutor, getLogger(),
+                config.getBoolean("reconnect.enabled", true),
+                config.getLong("reconnect.initial_delay_milliseconds", 1000),
+                config.getLong("reconnect.max_delay_milliseconds", 60000));
+        StreamerConnection connection = new StreamerConnection(streamer.id(), socketClient, reconnectSupervisor);
+        String name = connection.getDisplayName();
+        socketClient.setConnectionOpenListener(handshake -> {
+                    reconnectSupervisor.onConnectionOpen();
+                    this.broadcastStatus(ChatColor.GREEN + String.format("Successfully connected to %s!", name));
+                })
+                .setConnectionCloseListener(message -> {
+                    if (reconnectSupervisor.onConnectionLost())
+                        this.broadcastStatus(ChatColor.RED + String.format("Connection to %s lost!", name));
+                })
+                .setInvalidTokenListener(() -> {
+                    reconnectSupervisor.onInvalidToken();
+                    this.broadcastStatus(ChatColor.YELLOW + String.format("The socket token specified for %s is invalid!", name));
+                });
+        return connection;
     }
 
-    private void onConnectionClosed(String message) {
+    private void broadcastStatus(String message) {
         if (this.showStatusMessages())
-            Bukkit.broadcastMessage(ChatColor.RED + "Connection to Streamlabs lost!");
+            Bukkit.broadcastMessage(message);
     }
 
-    private void onInvalidSocketToken() {
-        if (this.showStatusMessages())
-            Bukkit.broadcastMessage(ChatColor.YELLOW + "The socket token specified is invalid!");
+    /**
+     * Connects the streamers that were added, reconnects the ones whose connection settings changed
+     * and disconnects the ones that were removed.
+     *
+     * @return Whether any connection changed
+     */
+    private boolean updateConnections(ConfigSnapshot snapshot, ConfigSnapshot previous) {
+        boolean changed = false;
+        for (StreamerProfile streamer : snapshot.streamers().values()) {
+            StreamerConnection connection = this.connections.get(streamer.id());
+            if (connection != null && !snapshot.connectionChanged(previous, streamer.id())) continue;
+
+            if (connection == null) {
+                connection = this.createConnection(streamer, snapshot);
+                this.connections.put(streamer.id(), connection);
+            } else {
+                connection.socketClient().updateConnection(snapshot.socketUrl(), streamer.socketToken());
+            }
+
+            if (!streamer.socketToken().isEmpty())
+                connection.reconnectSupervisor().connect();
+            else
+                connection.reconnectSupervisor().disconnect();
+            changed = true;
+        }
+
+        for (Iterator<StreamerConnection> iterator = this.connections.values().iterator(); iterator.hasNext(); ) {
+            StreamerConnection connection = iterator.next();
+            if (snapshot.streamers().containsKey(connection.streamerId())) continue;
+
+            connection.reconnectSupervisor().disconnect();
+            iterator.remove();
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private void onStreamlabsEvent(DecodedEvent event) {
+        this.actionExecutor.get().execute(event);
+    }
+
+    private ConfigSnapshot loadConfigSnapshot() throws IOException, InvalidConfigurationException {
+        YamlConfiguration defaults = null;
+        InputStream defaultConfig = getResource("config.yml");
+        if (defaultConfig != null) {
+            try (Reader reader = new InputStreamReader(defaultConfig, StandardCharsets.UTF_8)) {
+                defaults = YamlConfiguration.loadConfiguration(reader);
+            }
+        }
+
+        return ConfigSnapshot.load(new File(getDataFolder(), "config.yml"), defaults, EVENT_INDEX.getEvents(), getLogger());
+    }
+
+    /**
+     * Reads and compiles config.yml on an async task and swaps it in with a new action executor on the main thread once
+     * it's complete, together with the affected players and connections. Events that are already being processed finish
+     * on the previous one. If the file can't be read the previous config stays in use and the future completes exceptionally.
+     * If the affected players are changed while the file is being read, it is read again, so the change isn't undone.
+     *
+     * @return Whether any streamer connects, reconnects or disconnects because its connection settings changed
+     */
+    public CompletableFuture<Boolean> reloadConfigAsync() {
+        ActionExecutor previousExecutor = this.actionExecutor.get();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                ConfigSnapshot snapshot = this.loadConfigSnapshot();
+                return new ActionExecutor(snapshot, this.commandScheduler, this.affectedPlayers,
+                        this.eventAggregator, this.throttleEngine, this.metrics);
+            } catch (IOException | InvalidConfigurationException e) {
+                throw new CompletionException(e);
+            }
+        }, runnable -> Bukkit.getScheduler().runTaskAsynchronously(this, runnable)).thenComposeAsync(executor -> {
+            // The change has been saved to the file by now, but the snapshot may have been read before that
+            if (!this.actionExecutor.compareAndSet(previousExecutor, executor))
+                return this.reloadConfigAsync();
+
+            ConfigSnapshot snapshot = executor.getConfigSnapshot();
+            DEBUG_MODE = snapshot.debugMode();
+            this.throttleEngine.retainActions(snapshot);
+            this.affectedPlayers.load(getAffectedPlayerNames(snapshot), getServer().getOnlinePlayers());
+            return CompletableFuture.completedFuture(this.updateConnections(snapshot, previousExecutor.getConfigSnapshot()));
+        }, this::runOnMainThread);
+    }
+
+    /**
+     * Publishes a copy of the current config snapshot with the affected players of a streamer replaced and saves it
+     * to config.yml. Has to be called on the main thread.
+     */
+    public void setAffectedPlayers(String streamerId, List<String> players) {
+        ActionExecutor executor, updated;
+        do {
+            executor = this.actionExecutor.get();
+            updated = new ActionExecutor(executor.getConfigSnapshot().withAffectedPlayers(streamerId, players),
+                    this.commandScheduler, this.affectedPlayers, this.eventAggregator, this.throttleEngine, this.metrics);
+        } while (!this.actionExecutor.compareAndSet(executor, updated));
+
+        this.saveConfig();
+        this.affectedPlayers.load(streamerId, players, getServer().getOnlinePlayers());
     }
 
-    private void onStreamlabsEvent(JsonElement rawData) {
-        ActionExecutor executor = new ActionExecutor(this.rewardsConfig, STREAMLABS_EVENTS, this);
-        executor.parseAndExecute(rawData);
+    /**
+     * Tasks can't be scheduled once the plugin is disabled, they are skipped then.
+     */
+    private void runOnMainThread(Runnable runnable) {
+        if (this.isEnabled())
+            Bukkit.getScheduler().runTask(this, runnable);
     }
 
+    private static Map<String, List<String>> getAffectedPlayerNames(ConfigSnapshot snapshot) {
+        Map<String, List<String>> names = new HashMap<>();
+        for (StreamerProfile streamer : snapshot.streamers().values())
+            names.put(streamer.id(), streamer.affectedPlayers());
+        return names;
+    }
+
+    /**
+     * No more events are taken in, then the open aggregation windows and deferred executions are executed and everything
+     * that is scheduled is run before the executors are shut down.
+     */
     @Override
     public void onDisable() {
-        if (socketClient != null && socketClient.isOpen()) {
-            socketClient.close();
+        if (eventQueue != null)
+            eventQueue.stop();
+        connections.values().forEach(connection -> connection.reconnectSupervisor().stop());
+        for (StreamerConnection connection : connections.values()) {
+            if (connection.isOpen())
+                connection.socketClient().close();
         }
+        if (eventAggregator != null)
+            eventAggregator.close();
+        if (throttleEngine != null)
+            throttleEngine.close();
+        if (commandScheduler != null) {
+            commandScheduler.flush();
+            commandScheduler.stop();
+        }
+        if (socketExecutor != null)
+            socketExecutor.shutdownNow();
+        if (connectExecutor != null)
+            connectExecutor.shutdownNow();
+        if (frameRecorder != null)
+            frameRecorder.close();
+        metrics.unregisterMBean();
+    }
+
+    /**
+     * @return The connections in the order their streamers are configured in
+     */
+    public List<StreamerConnection> getConnections() {
+        List<StreamerConnection> connections = new ArrayList<>();
+        for (String streamerId : getConfigSnapshot().streamers().keySet()) {
+            StreamerConnection connection = this.connections.get(streamerId);
+            if (connection != null)
+                connections.add(connection);
+        }
+
+        return connections;
     }
 
-    public StreamlabsSocketClient getSocketClient() {
-        return socketClient;
+    public @Nullable StreamerConnection getConnection(String streamerId) {
+        return connections.get(streamerId);
     }
 
     public Set<? extends StreamlabsEvent> getCachedEventObjects() {
         return STREAMLABS_EVENTS;
     }
 
+    public EventIngestQueue getEventQueue() {
+        return eventQueue;
+    }
+
+    public CommandScheduler getCommandScheduler() {
+        return commandScheduler;
+    }
+
+    public EventAggregator getEventAggregator() {
+        return eventAggregator;
+    }
+
+    public ThrottleEngine getThrottleEngine() {
+        return throttleEngine;
+    }
+
+    public AffectedPlayerRegistry getAffectedPlayers() {
+        return affectedPlayers;
+    }
+
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    public StreamlabsEventIndex getEventIndex() {
+        return EVENT_INDEX;
+    }
+
+    public ActionExecutor getActionExecutor() {
+        return actionExecutor.get();
+    }
+
     public RewardsConfig getRewardsConfig() {
-        return rewardsConfig;
+        return getActionExecutor().getRewardsConfig();
+    }
+
+    public ConfigSnapshot getConfigSnapshot() {
+        return getActionExecutor().getConfigSnapshot();
+    }
+
+    /**
+     * @return The config of the current {@link ConfigSnapshot}, {@link #reloadConfigAsync()} replaces it
+     */
+    @Override
+    public @NotNull FileConfiguration getConfig() {
+        ActionExecutor executor = this.actionExecutor.get();
+        return executor != null ? executor.getConfigSnapshot().config() : super.getConfig();
     }
 
     private boolean showStatusMessages() {
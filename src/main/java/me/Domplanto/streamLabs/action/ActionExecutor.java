@@ -1,86 +1,172 @@
 package me.Domplanto.streamLabs.action;
 
-import com.fathzer.soft.javaluator.DoubleEvaluator;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import me.Domplanto.streamLabs.StreamLabs;
-import me.Domplanto.streamLabs.config.ActionPlaceholder;
+import me.Domplanto.streamLabs.config.ActionCommand;
+import me.Domplanto.streamLabs.config.ConfigSnapshot;
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.PlaceholderRegistry;
 import me.Domplanto.streamLabs.config.RewardsConfig;
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import me.Domplanto.streamLabs.events.DecodedEvent;
 import me.Domplanto.streamLabs.events.StreamlabsEvent;
-import me.Domplanto.streamLabs.exception.UnexpectedJsonFormatException;
-import org.bukkit.Bukkit;
-import org.bukkit.plugin.java.JavaPlugin;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.message.Message;
+import me.Domplanto.streamLabs.message.MessageOutput;
+import me.Domplanto.streamLabs.metrics.PipelineMetrics;
+import me.Domplanto.streamLabs.metrics.PipelineStage;
+import me.Domplanto.streamLabs.player.AffectedPlayerRegistry;
+import me.Domplanto.streamLabs.throttle.ThrottleEngine;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
 
+/**
+ * Executes the actions of one {@link ConfigSnapshot}, a reload replaces the whole executor.
+ */
 public class ActionExecutor {
-    private final RewardsConfig rewardsConfig;
-    private final Set<? extends StreamlabsEvent> eventSet;
-    private final JavaPlugin plugin;
-
-    public ActionExecutor(RewardsConfig rewardsConfig, Set<? extends StreamlabsEvent> eventSet, JavaPlugin plugin) {
-        this.rewardsConfig = rewardsConfig;
-        this.eventSet = eventSet;
-        this.plugin = plugin;
+    private final ConfigSnapshot snapshot;
+    private final StreamerProfile defaultStreamer;
+    private final CommandScheduler commandScheduler;
+    private final AffectedPlayerRegistry affectedPlayers;
+    private final EventAggregator aggregator;
+    private final ThrottleEngine throttle;
+    private final PipelineMetrics metrics;
+
+    public ActionExecutor(ConfigSnapshot snapshot, CommandScheduler commandScheduler, AffectedPlayerRegistry affectedPlayers,
+                          EventAggregator aggregator, ThrottleEngine throttle, PipelineMetrics metrics) {
+        this.snapshot = snapshot;
+        this.defaultStreamer = snapshot.streamers().get(StreamerProfile.DEFAULT_ID);
+        this.commandScheduler = commandScheduler;
+        this.affectedPlayers = affectedPlayers;
+        this.aggregator = aggregator;
+        this.throttle = throttle;
+        this.metrics = metrics;
+    }
+
+    public void execute(DecodedEvent decoded) {
+        StreamlabsEvent event = decoded.event();
+        StreamerProfile streamer = snapshot.getStreamer(decoded.streamerId());
+        // The streamer was removed by a reload while the event was waiting in the queue
+        if (streamer == null) return;
+
+        this.checkAndExecute(streamer, new EventContext(streamer.rewardsConfig().getPlaceholders(event), decoded.payload()));
     }
 
-    public void parseAndExecute(JsonElement data) throws UnexpectedJsonFormatException {
-        JsonObject object = data.getAsJsonArray().get(1).getAsJsonObject();
-        String type = object.get("type").getAsString();
-        if (StreamLabs.isDebugMode() && (!type.equals("alertPlaying") && !type.equals("streamlabels") && !type.equals("streamlabels.underlying")))
-            plugin.getLogger().info(String.format("Streamlabs message: %s", data));
+    public void checkAndExecute(StreamlabsEvent event, EventPayload payload) {
+        this.checkAndExecute(defaultStreamer.rewardsConfig().getPlaceholders(event), payload);
+    }
 
-        String platform = object.has("for") ? object.get("for").getAsString() : "streamlabs";
-        StreamlabsEvent event = eventSet.stream()
-                .filter(e -> e.getApiName().equals(type) && e.getPlatform().compare(platform))
-                .findFirst().orElse(null);
-        if (event == null) return;
+    public void checkAndExecute(PlaceholderRegistry placeholders, EventPayload payload) {
+        this.checkAndExecute(defaultStreamer, new EventContext(placeholders, payload));
+    }
 
-        JsonObject baseObject = event.getBaseObject(object);
-        this.checkAndExecute(event, baseObject);
+    public void checkAndExecute(EventContext context) {
+        this.checkAndExecute(defaultStreamer, context);
     }
 
-    public void checkAndExecute(StreamlabsEvent event, JsonObject baseObject) {
-        List<RewardsConfig.Action> actions = rewardsConfig.getActionsForEvent(event.getId());
+    /**
+     * @param streamer The streamer whose actions are checked and whose players are affected
+     * @param context  Created for this event only, placeholders computed while checking one action are reused by the others
+     */
+    public void checkAndExecute(StreamerProfile streamer, EventContext context) {
+        StreamlabsEvent event = context.getEvent();
+        MessageBatch messages = new MessageBatch(affectedPlayers, streamer.id(), event.getId());
+        List<RewardsConfig.Action> actions = streamer.rewardsConfig().getCandidateActions(context);
         for (RewardsConfig.Action action : actions) {
             if (!action.isEnabled()) continue;
 
-            if (event.checkConditions(action, baseObject)) {
-                executeAction(action, event, baseObject);
-            }
+            long conditionStartTime = System.nanoTime();
+            boolean conditionsMet = event.checkConditions(action, context);
+            metrics.record(PipelineStage.CONDITION_CHECK, event.getId(), action.getName(), conditionStartTime);
+            if (!conditionsMet) continue;
+
+            if (action.getAggregation() != null)
+                aggregator.add(streamer, action, context, this::executeAggregate);
+            else if (this.tryAcquire(streamer, action, context))
+                executeAction(streamer, action, context, messages);
         }
+
+        commandScheduler.schedule(messages);
     }
 
-    private void executeAction(RewardsConfig.Action action, StreamlabsEvent event, JsonObject baseObject) {
-        List<String> affectedPlayers = plugin.getConfig().getStringList("affected_players");
-        action.getMessages()
-                .stream().map(message -> message.replacePlaceholders(event, rewardsConfig, baseObject))
-                .forEach(message -> affectedPlayers.stream()
-                        .map(playerName -> plugin.getServer().getPlayerExact(playerName))
-                        .forEach(message::send));
-
-        for (String command : action.getCommands()) {
-            int executeAmount = 1;
-            if (command.startsWith("[") && command.contains("]")) {
-                String content = command.substring(1, command.indexOf(']'));
-                content = ActionPlaceholder.replacePlaceholders(content, event, rewardsConfig, baseObject);
-                command = command.substring(command.indexOf(']') + 1);
-                try {
-                    executeAmount = new DoubleEvaluator().evaluate(content).intValue();
-                } catch (Exception ignore) {
-                }
-            }
+    /**
+     * Executes an action once for every combined event, but no more often than its aggregation window allows.
+     */
+    private void executeAggregate(EventAggregator.Aggregate aggregate) {
+        StreamerProfile streamer = aggregate.getStreamer();
+        RewardsConfig.Action action = aggregate.getAction();
+        StreamlabsEvent event = aggregate.getEvent();
+        EventContext context = new EventContext(streamer.rewardsConfig().createPlaceholders(event,
+                aggregate.createPlaceholders().values()), aggregate.getPayload());
+        MessageBatch messages = new MessageBatch(affectedPlayers, streamer.id(), event.getId());
+        int executions = Math.min(aggregate.getCount(), Objects.requireNonNull(action.getAggregation()).maxExecutions());
+        for (int i = 0; i < executions; i++) {
+            if (this.tryAcquire(streamer, action, context))
+                executeAction(streamer, action, context, messages);
+        }
+
+        commandScheduler.schedule(messages);
+    }
+
+    /**
+     * @return Whether the action can be executed now, if it is throttled it is executed later on its own or not at all
+     */
+    private boolean tryAcquire(StreamerProfile streamer, RewardsConfig.Action action, EventContext context) {
+        if (action.getThrottle() == null && snapshot.throttling() == null) return true;
+
+        // The context of the event is not thread-safe, a deferred execution gets its own
+        PlaceholderRegistry placeholders = context.getPlaceholders();
+        EventPayload payload = context.getPayload();
+        return throttle.tryAcquire(snapshot.throttling(), streamer.id(), action, context.getEvent().getSender(payload), () -> {
+            MessageBatch messages = new MessageBatch(affectedPlayers, streamer.id(), placeholders.getEvent().getId());
+            executeAction(streamer, action, new EventContext(placeholders, payload), messages);
+            commandScheduler.schedule(messages);
+        });
+    }
+
+    public ConfigSnapshot getConfigSnapshot() {
+        return snapshot;
+    }
 
-            command = ActionPlaceholder.replacePlaceholders(command, event, rewardsConfig, baseObject);
-            List<String> players = command.contains("{player}") ? affectedPlayers : List.of("");
-            for (int i = 0; i < executeAmount; i++) {
-                for (String player : players) {
-                    String finalCommand = command.replace("{player}", player);
-                    Bukkit.getScheduler().runTask(this.plugin, () ->
-                            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), finalCommand));
-                }
+    /**
+     * @return The actions of the default streamer
+     */
+    public RewardsConfig getRewardsConfig() {
+        return defaultStreamer.rewardsConfig();
+    }
+
+    private void executeAction(StreamerProfile streamer, RewardsConfig.Action action, EventContext context, MessageBatch batch) {
+        String eventId = context.getEvent().getId();
+        long renderStartTime = System.nanoTime();
+        List<Message> messages = action.getMessages();
+        String[] renderedMessages = new String[messages.size()];
+        for (int i = 0; i < renderedMessages.length; i++)
+            renderedMessages[i] = messages.get(i).render(context);
+        List<ActionCommand> commands = action.getCommands();
+        String[] renderedCommands = new String[commands.size()];
+        int[] executeAmounts = new int[commands.size()];
+        for (int i = 0; i < renderedCommands.length; i++) {
+            executeAmounts[i] = commands.get(i).getExecutionCount(context);
+            renderedCommands[i] = commands.get(i).command().render(context);
+        }
+        metrics.record(PipelineStage.PLACEHOLDER_RENDER, eventId, action.getName(), renderStartTime);
+
+        MessageOutput output = new MessageOutput(snapshot.titleTimings());
+        for (int i = 0; i < renderedMessages.length; i++)
+            messages.get(i).addTo(output, renderedMessages[i]);
+        batch.add(output);
+
+        for (int i = 0; i < renderedCommands.length; i++) {
+            if (!commands.get(i).containsPlayer()) {
+                batch.addCommands(List.of(renderedCommands[i]), executeAmounts[i], action.getName());
+                continue;
             }
+
+            List<String> players = affectedPlayers.getNames(streamer.id());
+            List<String> playerCommands = new ArrayList<>(players.size());
+            for (String player : players)
+                playerCommands.add(renderedCommands[i].replace("{player}", player));
+            batch.addCommands(playerCommands, executeAmounts[i], action.getName());
         }
     }
 }
@@ -0,0 +1,204 @@
+package me.Domplanto.streamLabs.action;
+
+import me.Domplanto.streamLabs.metrics.PipelineMetrics;
+import me.Domplanto.streamLabs.metrics.PipelineStage;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Runs the commands and delivers the messages of actions from a single repeating main thread task.
+ * Every tick delivers all scheduled messages, but only runs commands until either the command or the time budget
+ * is used up, the remaining commands are carried over to the following ticks.
+ */
+public class CommandScheduler {
+    private final JavaPlugin plugin;
+    private final PipelineMetrics metrics;
+    private final Queue<ScheduledCommand> commands = new ConcurrentLinkedQueue<>();
+    private final Queue<MessageBatch> batches = new ConcurrentLinkedQueue<>();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong messagePacketCount = new AtomicLong();
+    private final AtomicLong uncoalescedMessagePacketCount = new AtomicLong();
+    private final int maxCommandsPerTick;
+    private final long maxNanosPerTick;
+    @Nullable
+    private BukkitTask task;
+
+    public CommandScheduler(JavaPlugin plugin, PipelineMetrics metrics, int maxCommandsPerTick, long maxMillisPerTick) {
+        this.plugin = plugin;
+        this.metrics = metrics;
+        this.maxCommandsPerTick = Math.max(1, maxCommandsPerTick);
+        this.maxNanosPerTick = Math.max(1, maxMillisPerTick) * 1_000_000;
+    }
+
+    public void start() {
+        if (this.task != null) return;
+        this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this::tick, 1, 1);
+    }
+
+    public void stop() {
+        if (this.task != null)
+            this.task.cancel();
+        this.task = null;
+
+        long remaining = this.backlog.getAndSet(0);
+        this.commands.clear();
+        this.batches.clear();
+        if (remaining > 0)
+            this.plugin.getLogger().warning(String.format("Discarded %d scheduled commands", remaining));
+    }
+
+    public void schedule(@NotNull String command, int times) {
+        this.schedule(List.of(command), times, null, null);
+    }
+
+    /**
+     * Runs the commands the given number of times, each repetition runs all of them in order,
+     * so the commands of different players are interleaved.
+     *
+     * @param eventId    The event the commands were triggered by, used for metrics
+     * @param actionName The action the commands belong to, used for metrics
+     */
+    public void schedule(@NotNull List<String> commands, int times, @Nullable String eventId, @Nullable String actionName) {
+        if (times <= 0 || commands.isEmpty()) return;
+
+        this.backlog.addAndGet((long) times * commands.size());
+        this.commands.add(new ScheduledCommand(List.copyOf(commands), times, eventId, actionName, System.nanoTime()));
+    }
+
+    /**
+     * Delivers the messages on the next tick, before any commands are run, then the commands of the batch
+     * are run after the ones that were scheduled before.
+     */
+    public void schedule(@NotNull MessageBatch batch) {
+        if (batch.isEmpty()) return;
+
+        batch.markScheduled();
+        for (MessageBatch.BatchCommand command : batch.getCommands())
+            this.backlog.addAndGet((long) command.times() * command.commands().size());
+        this.batches.add(batch);
+    }
+
+    /**
+     * Delivers the scheduled messages and runs the scheduled commands right away, regardless of the limits per tick.
+     * Used when the plugin is disabled, so the executions that were flushed on shutdown aren't discarded.
+     */
+    public void flush() {
+        this.run(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    private void tick() {
+        this.run(this.maxCommandsPerTick, this.maxNanosPerTick);
+    }
+
+    private void run(int maxCommands, long maxNanos) {
+        MessageBatch batch;
+        while ((batch = this.batches.poll()) != null) {
+            if (batch.hasMessages())
+                this.deliver(batch);
+            // The commands are only queued once the messages have been delivered, so no tick can run them earlier
+            for (MessageBatch.BatchCommand command : batch.getCommands())
+                this.commands.add(new ScheduledCommand(command.commands(), command.times(), batch.getEventId(),
+                        command.actionName(), batch.getScheduledAt()));
+        }
+
+        long deadline = System.nanoTime() + maxNanos;
+        int executed = 0;
+        ScheduledCommand command;
+        while (executed < maxCommands && (command = this.commands.peek()) != null) {
+            String commandString = command.next();
+            if (command.remaining <= 0)
+                this.commands.poll();
+            this.backlog.decrementAndGet();
+            executed++;
+            if (!command.dispatched) {
+                command.dispatched = true;
+                this.metrics.record(PipelineStage.COMMAND_DISPATCH, command.eventId, command.actionName, command.scheduledAt);
+            }
+            try {
+                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), commandString);
+            } catch (Exception e) {
+                this.plugin.getLogger().log(Level.WARNING, String.format("Failed to execute command \"%s\"", commandString), e);
+            }
+
+            if (System.nanoTime() - deadline >= 0) break;
+        }
+
+        this.executedCount.addAndGet(executed);
+    }
+
+    private void deliver(MessageBatch batch) {
+        this.metrics.record(PipelineStage.MESSAGE_DELIVERY, batch.getEventId(), null, batch.getScheduledAt());
+        try {
+            int players = batch.deliver();
+            this.messagePacketCount.addAndGet((long) players * batch.getPacketCount());
+            this.uncoalescedMessagePacketCount.addAndGet((long) players * batch.getUncoalescedPacketCount());
+        } catch (Exception e) {
+            this.plugin.getLogger().log(Level.WARNING, String.format("Failed to deliver the messages of event %s", batch.getEventId()), e);
+        }
+    }
+
+    public long getBacklogSize() {
+        return backlog.get();
+    }
+
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    /**
+     * @return The number of packets the messages of actions were sent in
+     */
+    public long getMessagePacketCount() {
+        return messagePacketCount.get();
+    }
+
+    /**
+     * @return The number of packets the messages of actions would have needed if each was sent on its own
+     */
+    public long getUncoalescedMessagePacketCount() {
+        return uncoalescedMessagePacketCount.get();
+    }
+
+    private static class ScheduledCommand {
+        private final List<String> commands;
+        @Nullable
+        private final String eventId;
+        @Nullable
+        private final String actionName;
+        private final long scheduledAt;
+        private int remaining;
+        private int index;
+        private boolean dispatched;
+
+        private ScheduledCommand(List<String> commands, int remaining, @Nullable String eventId, @Nullable String actionName, long scheduledAt) {
+            this.commands = commands;
+            this.remaining = remaining;
+            this.eventId = eventId;
+            this.actionName = actionName;
+            this.scheduledAt = scheduledAt;
+        }
+
+        /**
+         * @return The command to run next, {@link #remaining} is decreased after the last command of a repetition
+         */
+        private String next() {
+            String command = this.commands.get(this.index++);
+            if (this.index == this.commands.size()) {
+                this.index = 0;
+                this.remaining--;
+            }
+
+            return command;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package me.Domplanto.streamLabs.action;
+
+import me.Domplanto.streamLabs.config.ActionPlaceholder;
+import me.Domplanto.streamLabs.config.AggregationWindow;
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.RewardsConfig;
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Combines the events that trigger an action with an {@link AggregationWindow}. The first event of a sender opens a
+ * window, the events of the same sender that trigger the action before it closes are added to it. Windows are closed
+ * on the given scheduler, which hands the aggregate to the callback of the event that opened the window.
+ * {@link #close()} closes all open windows at once, before the scheduler is shut down.
+ */
+public class EventAggregator {
+    private final ScheduledExecutorService scheduler;
+    private final Logger logger;
+    private final Map<WindowKey, Aggregate> windows = new ConcurrentHashMap<>();
+    private final AtomicLong combinedCount = new AtomicLong();
+    private volatile boolean closed;
+
+    public EventAggregator(@NotNull ScheduledExecutorService scheduler, Logger logger) {
+        this.scheduler = scheduler;
+        this.logger = logger;
+    }
+
+    /**
+     * Adds an event whose conditions are met to the open window of its sender, or opens one.
+     *
+     * @param onClose Receives the aggregate when the window closes, on a thread of the scheduler or the one calling {@link #close()}
+     */
+    public void add(@NotNull StreamerProfile streamer, @NotNull RewardsConfig.Action action, @NotNull EventContext context,
+                    @NotNull Consumer<Aggregate> onClose) {
+        AggregationWindow window = Objects.requireNonNull(action.getAggregation());
+        StreamlabsEvent event = context.getEvent();
+        EventPayload payload = context.getPayload();
+        double amount = event instanceof BasicDonationEvent donationEvent ? donationEvent.calculateAmount(payload) : 0;
+        WindowKey key = new WindowKey(streamer.id(), action, event.getSender(payload));
+        if (this.closed) {
+            // No window can be opened anymore, the event is passed on by itself
+            Aggregate aggregate = new Aggregate(streamer, action, event, payload, key.sender(), onClose);
+            aggregate.add(amount);
+            this.close(key, aggregate);
+            return;
+        }
+
+        windows.compute(key, (k, aggregate) -> {
+            if (aggregate == null) {
+                aggregate = new Aggregate(streamer, action, event, payload, k.sender(), onClose);
+                scheduler.schedule(() -> this.close(k), window.windowMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                combinedCount.incrementAndGet();
+            }
+
+            aggregate.add(amount);
+            return aggregate;
+        });
+    }
+
+    /**
+     * Closes every open window right away on the calling thread, events that are added afterwards are passed on
+     * without being combined.
+     */
+    public void close() {
+        this.closed = true;
+        for (WindowKey key : windows.keySet())
+            this.close(key);
+    }
+
+    private void close(WindowKey key) {
+        // The window is only closed once, by whichever of the scheduler and close() removes it first
+        Aggregate aggregate = windows.remove(key);
+        if (aggregate != null)
+            this.close(key, aggregate);
+    }
+
+    private void close(WindowKey key, Aggregate aggregate) {
+        try {
+            aggregate.onClose.accept(aggregate);
+        } catch (Exception e) {
+            this.logger.log(Level.WARNING, String.format("Failed to execute action %s for the combined events of %s",
+                    key.action().getName(), key.sender()), e);
+        }
+    }
+
+    public int getOpenWindowCount() {
+        return windows.size();
+    }
+
+    /**
+     * @return How many events were added to an open window instead of triggering their action on their own
+     */
+    public long getCombinedCount() {
+        return combinedCount.get();
+    }
+
+    /**
+     * Actions are compared by identity, so the windows of an action don't outlive a reload that replaces it.
+     */
+    private record WindowKey(String streamerId, RewardsConfig.Action action, String sender) {
+    }
+
+    /**
+     * The events of one sender that were combined in a window, it is only changed until the window closes.
+     */
+    public static class Aggregate {
+        private final StreamerProfile streamer;
+        private final RewardsConfig.Action action;
+        private final StreamlabsEvent event;
+        private final EventPayload payload;
+        private final String sender;
+        private final Consumer<Aggregate> onClose;
+        private int count;
+        private double sumAmount;
+
+        private Aggregate(StreamerProfile streamer, RewardsConfig.Action action, StreamlabsEvent event, EventPayload payload,
+                          String sender, Consumer<Aggregate> onClose) {
+            this.streamer = streamer;
+            this.action = action;
+            this.event = event;
+            this.payload = payload;
+            this.sender = sender;
+            this.onClose = onClose;
+        }
+
+        private void add(double amount) {
+            this.count++;
+            // Donations without an amount are read as -1 or NaN
+            if (Double.isFinite(amount) && amount > 0)
+                this.sumAmount += amount;
+        }
+
+        public StreamerProfile getStreamer() {
+            return streamer;
+        }
+
+        public RewardsConfig.Action getAction() {
+            return action;
+        }
+
+        public StreamlabsEvent getEvent() {
+            return event;
+        }
+
+        /**
+         * @return The payload of the first event
+         */
+        public EventPayload getPayload() {
+            return payload;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getSumAmount() {
+            return sumAmount;
+        }
+
+        /**
+         * @return The placeholders of the event with {@code {user}} replaced by the sender and the
+         * {@code {count}} and {@code {sum_amount}} of the combined events added
+         */
+        public Map<String, ActionPlaceholder> createPlaceholders() {
+            Map<String, ActionPlaceholder> placeholders = new LinkedHashMap<>();
+            for (ActionPlaceholder placeholder : event.getPlaceholders())
+                placeholders.put(placeholder.name(), placeholder);
+
+            int count = this.count;
+            double sumAmount = this.sumAmount;
+            placeholders.put("user", new ActionPlaceholder("user", ActionPlaceholder.PlaceholderFunction.of(sender)));
+            placeholders.put("count", new ActionPlaceholder("count", ActionPlaceholder.PlaceholderFunction.ofNumber(
+                    p -> count, value -> String.valueOf((int) value))));
+            placeholders.put("sum_amount", new ActionPlaceholder("sum_amount", ActionPlaceholder.PlaceholderFunction.ofNumber(
+                    p -> sumAmount, value -> value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.2f", value))));
+            return placeholders;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package me.Domplanto.streamLabs.action;
+
+import me.Domplanto.streamLabs.message.MessageOutput;
+import me.Domplanto.streamLabs.player.AffectedPlayerRegistry;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The output of all actions of one event, the messages are delivered together on the main thread
+ * and the commands are run after them.
+ */
+public class MessageBatch {
+    private final AffectedPlayerRegistry affectedPlayers;
+    private final String streamerId;
+    private final String eventId;
+    private final List<MessageOutput> outputs = new ArrayList<>();
+    private final List<BatchCommand> commands = new ArrayList<>();
+    private long scheduledAt;
+
+    /**
+     * @param streamerId The streamer whose affected players receive the messages
+     */
+    public MessageBatch(AffectedPlayerRegistry affectedPlayers, String streamerId, String eventId) {
+        this.affectedPlayers = affectedPlayers;
+        this.streamerId = streamerId;
+        this.eventId = eventId;
+    }
+
+    void add(MessageOutput output) {
+        if (!output.isEmpty())
+            this.outputs.add(output);
+    }
+
+    /**
+     * Runs the commands the given number of times once the messages have been delivered,
+     * see {@link CommandScheduler#schedule(List, int, String, String)}.
+     */
+    void addCommands(List<String> commands, int times, String actionName) {
+        if (times > 0 && !commands.isEmpty())
+            this.commands.add(new BatchCommand(List.copyOf(commands), times, actionName));
+    }
+
+    public boolean isEmpty() {
+        return outputs.isEmpty() && commands.isEmpty();
+    }
+
+    boolean hasMessages() {
+        return !outputs.isEmpty();
+    }
+
+    List<BatchCommand> getCommands() {
+        return commands;
+    }
+
+    void markScheduled() {
+        this.scheduledAt = System.nanoTime();
+    }
+
+    /**
+     * Sends the output of every action to the affected players that are online, has to be called on the main thread.
+     *
+     * @return The number of players the output was sent to
+     */
+    public int deliver() {
+        int players = 0;
+        for (Player player : affectedPlayers.getOnlinePlayers(streamerId)) {
+            for (MessageOutput output : outputs)
+                output.send(player);
+            players++;
+        }
+
+        return players;
+    }
+
+    /**
+     * @return The number of packets each player receives
+     */
+    public int getPacketCount() {
+        int packets = 0;
+        for (MessageOutput output : outputs)
+            packets += output.getPacketCount();
+        return packets;
+    }
+
+    /**
+     * @return The number of packets each player would receive if every message was sent on its own
+     */
+    public int getUncoalescedPacketCount() {
+        int packets = 0;
+        for (MessageOutput output : outputs)
+            packets += output.getUncoalescedPacketCount();
+        return packets;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public long getScheduledAt() {
+        return scheduledAt;
+    }
+
+    record BatchCommand(List<String> commands, int times, String actionName) {
+    }
+}
@@ -1,7 +1,8 @@
 package me.Domplanto.streamLabs.command;
 
 import me.Domplanto.streamLabs.StreamLabs;
-import me.Domplanto.streamLabs.socket.StreamlabsSocketClient;
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import me.Domplanto.streamLabs.socket.StreamerConnection;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -22,20 +23,28 @@ public class ConnectSubCommand extends SubCommand {
     }
 
     @Override
-    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] strings) {
-        StreamlabsSocketClient socketClient = getPlugin().getSocketClient();
-        if (!socketClient.isOpen()) {
-            socketClient.reconnectAsync();
-            sender.sendMessage(ChatColor.GREEN + "Connecting to Streamlabs...");
-        } else {
-            sender.sendMessage(ChatColor.YELLOW + "Already connected to Streamlabs!");
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
+        List<StreamerConnection> connections = getConnections(sender, args.length > 1 ? args[1] : null);
+        if (connections == null) return true;
+
+        for (StreamerConnection connection : connections) {
+            String name = connection.getDisplayName();
+            StreamerProfile streamer = getPlugin().getConfigSnapshot().getStreamer(connection.streamerId());
+            if (connection.isOpen()) {
+                sender.sendMessage(ChatColor.YELLOW + String.format("Already connected to %s!", name));
+            } else if (streamer == null || streamer.socketToken().isEmpty()) {
+                sender.sendMessage(ChatColor.YELLOW + String.format("No socket token configured for %s!", name));
+            } else {
+                connection.reconnectSupervisor().connect();
+                sender.sendMessage(ChatColor.GREEN + String.format("Connecting to %s...", name));
+            }
         }
 
         return true;
     }
 
     @Override
-    public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] strings) {
-        return List.of();
+    public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
+        return args.length == 2 ? getStreamerIds() : List.of();
     }
 }
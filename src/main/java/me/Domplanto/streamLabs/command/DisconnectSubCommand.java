@@ -1,7 +1,7 @@
 package me.Domplanto.streamLabs.command;
 
 import me.Domplanto.streamLabs.StreamLabs;
-import me.Domplanto.streamLabs.socket.StreamlabsSocketClient;
+import me.Domplanto.streamLabs.socket.StreamerConnection;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -22,20 +22,25 @@ public class DisconnectSubCommand extends SubCommand {
     }
 
     @Override
-    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] strings) {
-        StreamlabsSocketClient socketClient = getPlugin().getSocketClient();
-        if (socketClient.isOpen()) {
-            socketClient.close();
-            sender.sendMessage(ChatColor.RED + "Disconnected from Streamlabs!");
-        } else {
-            sender.sendMessage(ChatColor.YELLOW + "Not connected to Streamlabs!");
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
+        List<StreamerConnection> connections = getConnections(sender, args.length > 1 ? args[1] : null);
+        if (connections == null) return true;
+
+        for (StreamerConnection connection : connections) {
+            String name = connection.getDisplayName();
+            if (connection.isOpen()) {
+                connection.reconnectSupervisor().disconnect();
+                sender.sendMessage(ChatColor.RED + String.format("Disconnected from %s!", name));
+            } else if (args.length > 1) {
+                sender.sendMessage(ChatColor.YELLOW + String.format("Not connected to %s!", name));
+            }
         }
 
         return true;
     }
 
     @Override
-    public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] strings) {
-        return List.of();
+    public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
+        return args.length == 2 ? getStreamerIds() : List.of();
     }
 }
@@ -1,14 +1,15 @@
 package me.Domplanto.streamLabs.command;
 
 import me.Domplanto.streamLabs.StreamLabs;
+import me.Domplanto.streamLabs.config.StreamerProfile;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @SuppressWarnings("unused")
@@ -24,13 +25,19 @@ public class PlayerSubCommand extends SubCommand {
 
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
-        if (args.length != 3) {
+        if (args.length != 3 && args.length != 4) {
             sender.sendMessage(ChatColor.RED + "Please specify a player name");
             return true;
         }
 
-        FileConfiguration config = getPlugin().getConfig();
-        List<String> players = config.getStringList("affected_players");
+        String streamerId = args.length == 4 ? args[3] : StreamerProfile.DEFAULT_ID;
+        StreamerProfile streamer = getPlugin().getConfigSnapshot().getStreamer(streamerId);
+        if (streamer == null) {
+            sender.sendMessage(ChatColor.RED + String.format("Unknown streamer \"%s\"", streamerId));
+            return true;
+        }
+
+        List<String> players = new ArrayList<>(streamer.affectedPlayers());
         if (args[1].equals("add")) {
             if (players.contains(args[2])) {
                 sender.sendMessage(ChatColor.RED + String.format("%s is already in the affected player list", args[2]));
@@ -49,18 +56,21 @@ public class PlayerSubCommand extends SubCommand {
             sender.sendMessage(ChatColor.GREEN + String.format("%s removed from affected players", args[2]));
         } else {
             sender.sendMessage(ChatColor.RED + String.format("Unknown sub-command \"%s\"", args[1]));
+            return true;
         }
 
-        config.set("affected_players", players);
-        getPlugin().saveConfig();
+        getPlugin().setAffectedPlayers(streamerId, players);
         return true;
     }
 
     @Override
     public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
-        List<String> affectedPlayers = getPlugin().getConfig().getStringList("affected_players");
         if (args.length == 2)
             return List.of("add", "remove");
+        if (args.length == 4)
+            return getStreamerIds();
+
+        List<String> affectedPlayers = getPlugin().getAffectedPlayers().getNames(StreamerProfile.DEFAULT_ID);
         if (args.length == 3 && args[1].equals("remove"))
             return affectedPlayers;
         if (args.length == 3 && args[1].equals("add")) {
@@ -1,6 +1,7 @@
 package me.Domplanto.streamLabs.command;
 
 import me.Domplanto.streamLabs.StreamLabs;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -8,6 +9,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.logging.Level;
 
 @SuppressWarnings("unused")
 public class ReloadSubCommand extends SubCommand {
@@ -22,11 +24,23 @@ public class ReloadSubCommand extends SubCommand {
 
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] strings) {
-        getPlugin().reloadConfig();
-        getPlugin().getRewardsConfig().load(getPlugin().getConfig());
-        getPlugin().getSocketClient().updateToken(getPlugin().getConfig().getString("streamlabs.socket_token", ""));
-        sender.sendMessage(ChatColor.GREEN + "Configuration reloaded!");
-        getPlugin().getSocketClient().reconnectAsync();
+        sender.sendMessage(ChatColor.GRAY + "Reloading configuration...");
+        getPlugin().reloadConfigAsync().whenComplete((reconnecting, error) -> {
+            if (error != null)
+                getPlugin().getLogger().log(Level.WARNING, "Failed to reload config.yml", error.getCause() != null ? error.getCause() : error);
+            if (!getPlugin().isEnabled()) return;
+
+            Bukkit.getScheduler().runTask(getPlugin(), () -> {
+                if (error != null) {
+                    sender.sendMessage(ChatColor.RED + "Failed to reload the configuration, the previous one is still in use. Check the console for details!");
+                    return;
+                }
+
+                sender.sendMessage(ChatColor.GREEN + "Configuration reloaded!");
+                if (reconnecting)
+                    sender.sendMessage(ChatColor.GRAY + "The connection settings changed, reconnecting to Streamlabs...");
+            });
+        });
         return true;
     }
 
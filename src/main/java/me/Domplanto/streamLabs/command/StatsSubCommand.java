@@ -0,0 +1,87 @@
+package me.Domplanto.streamLabs.command;
+
+import me.Domplanto.streamLabs.StreamLabs;
+import me.Domplanto.streamLabs.metrics.LatencyHistogram;
+import me.Domplanto.streamLabs.metrics.PipelineMetrics;
+import me.Domplanto.streamLabs.metrics.PipelineStage;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@SuppressWarnings("unused")
+public class StatsSubCommand extends SubCommand {
+    public StatsSubCommand(StreamLabs pluginInstance) {
+        super(pluginInstance);
+    }
+
+    @Override
+    public String getName() {
+        return "stats";
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
+        PipelineMetrics metrics = getPlugin().getMetrics();
+        if (args.length == 1) {
+            sender.sendMessage(ChatColor.BLUE + "Latency of all events (count, p50, p99, max):");
+            this.sendStages(sender, metrics::getHistogram);
+            return true;
+        }
+
+        switch (args[1]) {
+            case "reset" -> {
+                metrics.reset();
+                sender.sendMessage(ChatColor.GREEN + "Statistics reset!");
+            }
+            case "event", "action" -> {
+                if (args.length != 3) {
+                    sender.sendMessage(ChatColor.RED + String.format("Please specify the %s", args[1].equals("event") ? "event id" : "action name"));
+                    return true;
+                }
+
+                boolean event = args[1].equals("event");
+                sender.sendMessage(ChatColor.BLUE + String.format("Latency of %s %s (count, p50, p99, max):", args[1], args[2]));
+                this.sendStages(sender, stage -> event ? metrics.getEventHistogram(args[2], stage) : metrics.getActionHistogram(args[2], stage));
+            }
+            default -> sender.sendMessage(ChatColor.RED + String.format("Unknown sub-command \"%s\"", args[1]));
+        }
+
+        return true;
+    }
+
+    private void sendStages(CommandSender sender, Function<PipelineStage, @Nullable LatencyHistogram> histograms) {
+        for (PipelineStage stage : PipelineStage.values()) {
+            LatencyHistogram histogram = histograms.apply(stage);
+            if (histogram == null || histogram.getCount() == 0) continue;
+
+            sender.sendMessage(String.format("%s%s: %s%d %s%s / %s / %s", ChatColor.GRAY, stage.getId(), ChatColor.WHITE,
+                    histogram.getCount(), ChatColor.GRAY, formatNanos(histogram.getPercentile(50)),
+                    formatNanos(histogram.getPercentile(99)), formatNanos(histogram.getMax())));
+        }
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000) return String.format("%.1fµs", nanos / 1000d);
+
+        return String.format("%.2fms", nanos / 1_000_000d);
+    }
+
+    @Override
+    public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
+        if (args.length == 2)
+            return List.of("event", "action", "reset");
+
+        List<String> names = new ArrayList<>();
+        if (args.length == 3 && args[1].equals("event"))
+            getPlugin().getMetrics().getEventIds().forEach(names::add);
+        else if (args.length == 3 && args[1].equals("action"))
+            getPlugin().getMetrics().getActionNames().forEach(names::add);
+        return names;
+    }
+}
@@ -1,6 +1,12 @@
 package me.Domplanto.streamLabs.command;
 
 import me.Domplanto.streamLabs.StreamLabs;
+import me.Domplanto.streamLabs.action.CommandScheduler;
+import me.Domplanto.streamLabs.action.EventAggregator;
+import me.Domplanto.streamLabs.ingest.EventIngestQueue;
+import me.Domplanto.streamLabs.socket.ReconnectSupervisor;
+import me.Domplanto.streamLabs.socket.StreamerConnection;
+import me.Domplanto.streamLabs.throttle.ThrottleEngine;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -22,12 +28,46 @@ public class StatusSubCommand extends SubCommand {
 
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] strings) {
-        sender.sendMessage(ChatColor.BLUE + "Streamlabs Status: " +
-                (getPlugin().getSocketClient().isOpen() ? ChatColor.GREEN + "Connected" : ChatColor.RED + "Disconnected"));
-        
+        for (StreamerConnection connection : getPlugin().getConnections()) {
+            sender.sendMessage(ChatColor.BLUE + connection.getDisplayName() + " Status: " +
+                    (connection.isOpen() ? ChatColor.GREEN + "Connected" : ChatColor.RED + "Disconnected"));
+            ReconnectSupervisor supervisor = connection.reconnectSupervisor();
+            if (supervisor.isReconnecting())
+                sender.sendMessage(ChatColor.BLUE + String.format("  Reconnecting in: %s%ds %s(attempt %d, %d in total)",
+                        ChatColor.WHITE, supervisor.getMillisUntilNextAttempt() / 1000, ChatColor.GRAY,
+                        supervisor.getFailedAttempts(), supervisor.getTotalAttempts()));
+            long lastEventTime = connection.socketClient().getLastEventTime();
+            sender.sendMessage(ChatColor.BLUE + "  Last event: " + ChatColor.WHITE +
+                    (lastEventTime != -1 ? formatDuration(System.currentTimeMillis() - lastEventTime) + " ago" : "none"));
+        }
+        EventIngestQueue eventQueue = getPlugin().getEventQueue();
+        sender.sendMessage(ChatColor.BLUE + String.format("Event queue: %s%d/%d %s(%d dropped, %d duplicates ignored)",
+                ChatColor.WHITE, eventQueue.getSize(), eventQueue.getCapacity(), ChatColor.GRAY,
+                eventQueue.getDroppedCount(), eventQueue.getDuplicateCount()));
+        CommandScheduler commandScheduler = getPlugin().getCommandScheduler();
+        sender.sendMessage(ChatColor.BLUE + String.format("Scheduled commands: %s%d %s(%d executed)",
+                ChatColor.WHITE, commandScheduler.getBacklogSize(), ChatColor.GRAY, commandScheduler.getExecutedCount()));
+        EventAggregator aggregator = getPlugin().getEventAggregator();
+        sender.sendMessage(ChatColor.BLUE + String.format("Aggregation windows: %s%d open %s(%d events combined)",
+                ChatColor.WHITE, aggregator.getOpenWindowCount(), ChatColor.GRAY, aggregator.getCombinedCount()));
+        ThrottleEngine throttle = getPlugin().getThrottleEngine();
+        sender.sendMessage(ChatColor.BLUE + String.format("Throttled executions: %s%d deferred, %d collapsed, %d dropped %s(%d waiting, %d users on cooldown)",
+                ChatColor.WHITE, throttle.getDeferredCount(), throttle.getCollapsedCount(), throttle.getDroppedCount(), ChatColor.GRAY,
+                throttle.getWaitingCount(), throttle.getCooldownCount()));
+        sender.sendMessage(ChatColor.BLUE + String.format("Message packets sent: %s%d %s(%d without merging)",
+                ChatColor.WHITE, commandScheduler.getMessagePacketCount(), ChatColor.GRAY, commandScheduler.getUncoalescedMessagePacketCount()));
+
         return true;
     }
 
+    private static String formatDuration(long millis) {
+        long seconds = millis / 1000;
+        if (seconds < 60) return seconds + "s";
+        if (seconds < 3600) return String.format("%dm %ds", seconds / 60, seconds % 60);
+
+        return String.format("%dh %dm", seconds / 3600, seconds % 3600 / 60);
+    }
+
     @Override
     public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] strings) {
         return List.of();
@@ -1,12 +1,19 @@
 package me.Domplanto.streamLabs.command;
 
+import me.Domplanto.streamLabs.ComponentRegistry;
 import me.Domplanto.streamLabs.StreamLabs;
-import me.Domplanto.streamLabs.util.ReflectUtil;
+import me.Domplanto.streamLabs.processor.ComponentType;
+import me.Domplanto.streamLabs.socket.StreamerConnection;
+import org.bukkit.ChatColor;
 import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.Set;
 
+@ComponentType(value = "subCommands", constructorArgs = StreamLabs.class)
 public abstract class SubCommand implements TabCompleter, CommandExecutor {
     private final StreamLabs pluginInstance;
 
@@ -20,7 +27,27 @@ public abstract class SubCommand implements TabCompleter, CommandExecutor {
         return this.pluginInstance;
     }
 
+    /**
+     * @param streamerId The streamer given as an argument, or null for all streamers
+     * @return The connections of the streamers, or null if the streamer is unknown (the sender is told so)
+     */
+    protected @Nullable List<StreamerConnection> getConnections(CommandSender sender, @Nullable String streamerId) {
+        if (streamerId == null) return getPlugin().getConnections();
+
+        StreamerConnection connection = getPlugin().getConnection(streamerId);
+        if (connection == null) {
+            sender.sendMessage(ChatColor.RED + String.format("Unknown streamer \"%s\"", streamerId));
+            return null;
+        }
+
+        return List.of(connection);
+    }
+
+    protected List<String> getStreamerIds() {
+        return List.copyOf(getPlugin().getConfigSnapshot().streamers().keySet());
+    }
+
     public static Set<? extends SubCommand> findSubCommandClasses(StreamLabs pluginInstance) {
-        return ReflectUtil.findClasses(SubCommand.class, pluginInstance);
+        return Set.copyOf(ComponentRegistry.subCommands(pluginInstance));
     }
 }
@@ -1,10 +1,13 @@
 package me.Domplanto.streamLabs.command;
 
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import me.Domplanto.streamLabs.StreamLabs;
-import me.Domplanto.streamLabs.action.ActionExecutor;
 import me.Domplanto.streamLabs.config.ActionPlaceholder;
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.StreamerProfile;
 import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
 import me.Domplanto.streamLabs.events.youtube.YoutubeSuperchatEvent;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -12,7 +15,11 @@ import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 @SuppressWarnings("unused")
@@ -33,19 +40,18 @@ public class TestSubCommand extends SubCommand {
             return true;
         }
 
-        StreamlabsEvent event = StreamlabsEvent.findEventClasses().stream()
-                .filter(e -> e.getId().equals(args[1]))
-                .findFirst()
-                .orElse(null);
+        StreamlabsEvent event = getPlugin().getEventIndex().getById(args[1]);
         if (event == null) {
             sender.sendMessage(ChatColor.RED + "Unknown event type!");
             return true;
         }
 
         JsonObject object = new JsonObject();
+        Map<String, ActionPlaceholder> placeholders = new HashMap<>();
         String user = "user%s".formatted(new Random().nextInt(10, 9999999));
-        event.getPlaceholders().clear();
-        event.addPlaceholder("user", o -> user);
+        placeholders.put("user", new ActionPlaceholder("user", ActionPlaceholder.PlaceholderFunction.of(user)));
+        object.addProperty("name", user);
+        String streamerId = StreamerProfile.DEFAULT_ID;
         for (int i = 1; i < args.length; i++) {
             String arg = args[i];
             if (!arg.contains("=")) continue;
@@ -54,7 +60,12 @@ public class TestSubCommand extends SubCommand {
             if (data[0].length() <= 1) continue;
 
             String value2 = data.length > 1 ? data[1] : "";
-            event.addPlaceholder(data[0], o -> value2);
+            if (data[0].equals("streamer")) {
+                streamerId = value2;
+                continue;
+            }
+
+            placeholders.put(data[0], new ActionPlaceholder(data[0], ActionPlaceholder.PlaceholderFunction.of(value2)));
             try {
                 double value = Double.parseDouble(value2);
                 if (event instanceof YoutubeSuperchatEvent)
@@ -66,8 +77,22 @@ public class TestSubCommand extends SubCommand {
             }
         }
 
-        ActionExecutor executor = new ActionExecutor(getPlugin().getRewardsConfig(), getPlugin().getCachedEventObjects(), getPlugin());
-        executor.checkAndExecute(event, object);
+        // The arguments are bound like a socket message, so the payload has the same defaults for missing fields
+        EventPayload payload;
+        try {
+            payload = event.readPayload(new JsonReader(new StringReader(object.toString())));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        StreamerProfile streamer = getPlugin().getConfigSnapshot().getStreamer(streamerId);
+        if (streamer == null) {
+            sender.sendMessage(ChatColor.RED + String.format("Unknown streamer \"%s\"", streamerId));
+            return true;
+        }
+
+        getPlugin().getActionExecutor().checkAndExecute(streamer,
+                new EventContext(streamer.rewardsConfig().createPlaceholders(event, placeholders.values()), payload));
         return true;
     }
 
@@ -0,0 +1,33 @@
+package me.Domplanto.streamLabs.condition;
+
+import java.util.List;
+
+/**
+ * The donation amounts that can pass a list of donation conditions, as far as the comparisons of the amount with a
+ * constant tell. Other conditions are not reflected in the range, so an amount inside it can still fail them.
+ */
+public record AmountRange(double min, boolean minInclusive, double max, boolean maxInclusive) {
+    public static final AmountRange ALL = new AmountRange(Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY, true);
+
+    public static AmountRange of(List<Condition> donationConditions) {
+        AmountRange range = ALL;
+        for (Condition condition : donationConditions)
+            if (condition instanceof Comparison comparison)
+                range = range.intersect(comparison.getAmountRange());
+
+        return range;
+    }
+
+    public AmountRange intersect(AmountRange other) {
+        double min = Math.max(this.min, other.min);
+        double max = Math.min(this.max, other.max);
+        return new AmountRange(
+                min, (this.min != min || this.minInclusive) && (other.min != min || other.minInclusive),
+                max, (this.max != max || this.maxInclusive) && (other.max != max || other.maxInclusive)
+        );
+    }
+
+    public boolean contains(double amount) {
+        return (amount > min || (minInclusive && amount == min)) && (amount < max || (maxInclusive && amount == max));
+    }
+}
@@ -0,0 +1,137 @@
+package me.Domplanto.streamLabs.condition;
+
+import me.Domplanto.streamLabs.condition.operator.*;
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import me.Domplanto.streamLabs.util.NumberUtil;
+
+/**
+ * Two operands compared by an {@link Operator}, the leaves of a compiled condition.
+ */
+class Comparison implements Condition {
+    static final Operand DONATION_AMOUNT = new DonationAmount();
+    private final Operand operand1;
+    private final Operand operand2;
+    private final Operator operator;
+    private final boolean stringOnly;
+
+    Comparison(Operator operator, Operand operand1, Operand operand2) {
+        this.operand1 = operand1;
+        this.operand2 = operand2;
+        this.operator = operator;
+        this.stringOnly = operand1 instanceof StringConstant || operand2 instanceof StringConstant;
+    }
+
+    /**
+     * Compares both operands as numbers if both of them are numbers, otherwise as strings.
+     */
+    @Override
+    public boolean check(EventContext context) {
+        if (!stringOnly) {
+            double number1 = operand1.getNumber(context);
+            if (!Double.isNaN(number1)) {
+                double number2 = operand2.getNumber(context);
+                if (!Double.isNaN(number2))
+                    return this.operator.check(number1, number2);
+            }
+        }
+
+        return this.operator.check(operand1.getString(context), operand2.getString(context));
+    }
+
+    /**
+     * @return The amounts this comparison accepts if it compares the donation amount with a constant using one of the
+     * built-in relational operators, otherwise {@link AmountRange#ALL}
+     */
+    AmountRange getAmountRange() {
+        if (operand1 != DONATION_AMOUNT || !(operand2 instanceof NumberConstant constant)) return AmountRange.ALL;
+
+        double value = constant.value();
+        if (operator instanceof LargerOperator) return new AmountRange(value, false, Double.POSITIVE_INFINITY, true);
+        if (operator instanceof LargerEqualsOperator) return new AmountRange(value, true, Double.POSITIVE_INFINITY, true);
+        if (operator instanceof SmallerOperator) return new AmountRange(Double.NEGATIVE_INFINITY, true, value, false);
+        if (operator instanceof SmallerEqualsOperator) return new AmountRange(Double.NEGATIVE_INFINITY, true, value, true);
+        if (operator instanceof EqualityOperator) return new AmountRange(value, true, value, true);
+
+        return AmountRange.ALL;
+    }
+
+    /**
+     * Classifies an unquoted operand as a placeholder, a number or a string.
+     */
+    static Operand parseOperand(String operandString) {
+        if (operandString.startsWith("{") && operandString.endsWith("}") && operandString.length() >= 3)
+            return new PlaceholderOperand(operandString.substring(1, operandString.length() - 1), operandString);
+
+        double number = NumberUtil.parseDouble(operandString);
+        return Double.isNaN(number) ? new StringConstant(operandString) : new NumberConstant(number, operandString);
+    }
+
+    /**
+     * Quoted operands are always compared as strings.
+     */
+    static Operand literal(String text) {
+        return new StringConstant(text);
+    }
+
+    interface Operand {
+        /**
+         * @return The value of the operand as a number, {@link Double#NaN} if it isn't one
+         */
+        double getNumber(EventContext context);
+
+        String getString(EventContext context);
+    }
+
+    private record NumberConstant(double value, String text) implements Operand {
+        @Override
+        public double getNumber(EventContext context) {
+            return value;
+        }
+
+        @Override
+        public String getString(EventContext context) {
+            return text;
+        }
+    }
+
+    private record StringConstant(String text) implements Operand {
+        @Override
+        public double getNumber(EventContext context) {
+            return Double.NaN;
+        }
+
+        @Override
+        public String getString(EventContext context) {
+            return text;
+        }
+    }
+
+    /**
+     * An event placeholder, unknown placeholders are compared as they are written.
+     */
+    private record PlaceholderOperand(String name, String text) implements Operand {
+        @Override
+        public double getNumber(EventContext context) {
+            return context.getEventNumericValue(name);
+        }
+
+        @Override
+        public String getString(EventContext context) {
+            String value = context.getEventValue(name);
+            return value != null ? value : text;
+        }
+    }
+
+    private static class DonationAmount implements Operand {
+        @Override
+        public double getNumber(EventContext context) {
+            return ((BasicDonationEvent) context.getEvent()).calculateAmount(context.getPayload());
+        }
+
+        @Override
+        public String getString(EventContext context) {
+            return String.valueOf(this.getNumber(context));
+        }
+    }
+}
@@ -1,92 +1,61 @@
 package me.Domplanto.streamLabs.condition;
 
-import com.google.gson.JsonObject;
-import me.Domplanto.streamLabs.config.ActionPlaceholder;
-import me.Domplanto.streamLabs.events.StreamlabsEvent;
-import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
-
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Set;
-
-public class Condition {
-    private static final Set<? extends Operator> OPERATORS = Operator.findOperatorClasses();
-    private final ActionPlaceholder.PlaceholderFunction element1;
-    private final ActionPlaceholder.PlaceholderFunction element2;
-    private final Operator operator;
-    private final boolean invert;
-
-    private Condition(Operator operator, boolean invert, ActionPlaceholder.PlaceholderFunction element1, ActionPlaceholder.PlaceholderFunction element2) {
-        this.element1 = element1;
-        this.element2 = element2;
-        this.operator = operator;
-        this.invert = invert;
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.exception.InvalidConditionException;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A compiled condition, evaluated against any event without being parsed again.
+ * Placeholders are looked up by name on the event that is being checked.
+ */
+@FunctionalInterface
+public interface Condition {
+    boolean check(EventContext context);
+
+    /**
+     * Compiles a condition like {@code ({amount}>=10 || {message}.>"cats") && !{user}=codingcat24}.
+     *
+     * @throws InvalidConditionException if the condition is not valid
+     */
+    static Condition parse(String condition) {
+        return new ConditionParser(condition, OperatorRegistry.getOperators()).parse();
     }
 
-    public boolean check(StreamlabsEvent event, JsonObject object) {
-        String e1 = element1.execute(object, event);
-        String e2 = element2.execute(object, event);
-        try {
-            return invert != this.operator.check(Double.parseDouble(e1), Double.parseDouble(e2));
-        } catch (NumberFormatException e) {
-            return invert != this.operator.check(e1, e2);
+    /**
+     * Compiles a list of condition strings, invalid conditions are passed to the error handler and left out.
+     */
+    static List<Condition> parseAll(List<String> conditionStrings, Consumer<InvalidConditionException> errorHandler) {
+        List<Condition> conditions = new ArrayList<>(conditionStrings.size());
+        for (String string : conditionStrings) {
+            try {
+                conditions.add(parse(string));
+            } catch (InvalidConditionException e) {
+                errorHandler.accept(e);
+            }
         }
-    }
-
-    public static List<Condition> parseAll(List<String> conditionStrings, StreamlabsEvent event) {
-        return conditionStrings.stream()
-                .map(string -> {
-                    boolean invert = string.startsWith("!");
-                    if (invert)
-                        string = string.substring(1);
-
-                    final String finalString = string;
-                    Operator op = findOperator(finalString);
-                    if (op == null) return null;
-
-                    String[] elements = finalString.split(op.getName());
-                    if (elements.length == 0) return null;
 
-                    ActionPlaceholder.PlaceholderFunction e2 = elements.length >= 2 ? parseElement(elements[1], event)
-                            : ActionPlaceholder.PlaceholderFunction.of("");
-                    return new Condition(op, invert, parseElement(elements[0], event), e2);
-                }).toList();
+        return List.copyOf(conditions);
     }
 
-    public static List<Condition> parseDonationConditions(List<String> donationConditionStrings, BasicDonationEvent event, JsonObject baseObject) {
-        ArrayList<Condition> conditions = new ArrayList<>();
+    /**
+     * Compiles donation conditions ({@code EUR>10}) and groups them by the currency they apply to,
+     * so only the conditions matching the currency of a donation have to be checked.
+     */
+    static Map<String, List<Condition>> parseDonationConditions(List<String> donationConditionStrings, Consumer<InvalidConditionException> errorHandler) {
+        Map<String, List<Condition>> conditions = new HashMap<>();
         for (String string : donationConditionStrings) {
-            Operator op = findOperator(string);
-            if (op == null) continue;
-
-            String[] elements = string.split(op.getName());
-            if (elements[0].equals(event.getCurrency(baseObject)))
-                conditions.add(new Condition(op, false, ActionPlaceholder.PlaceholderFunction.of(o -> String.valueOf(event.calculateAmount(o))),
-                        parseElement(elements[1], event)));
+            try {
+                Map.Entry<String, Condition> condition = new ConditionParser(string, OperatorRegistry.getOperators()).parseDonationCondition();
+                conditions.computeIfAbsent(condition.getKey(), currency -> new ArrayList<>())
+                        .add(condition.getValue());
+            } catch (InvalidConditionException e) {
+                errorHandler.accept(e);
+            }
         }
 
-        return conditions;
-    }
-
-    private static ActionPlaceholder.PlaceholderFunction parseElement(String elementString, StreamlabsEvent event) {
-        ActionPlaceholder.PlaceholderFunction defaultFunc = ActionPlaceholder.PlaceholderFunction.of(elementString);
-        if (!elementString.startsWith("{") || !elementString.endsWith("}") || elementString.length() < 3)
-            return defaultFunc;
-
-        String placeholderName = elementString.substring(1, elementString.length() - 1);
-        return event.getPlaceholders()
-                .stream()
-                .filter(placeholder -> placeholder.name().equals(placeholderName))
-                .min(Comparator.comparingInt(p -> p.name().length()))
-                .map(ActionPlaceholder::function)
-                .orElse(defaultFunc);
-    }
-
-    private static Operator findOperator(String condition) {
-        return OPERATORS.stream()
-                .sorted(Comparator.comparing(o -> o.getName().length(), (len1, len2) -> len2 - len1))
-                .filter(operator1 -> condition.contains(operator1.getName()))
-                .findFirst().orElse(null);
+        conditions.replaceAll((currency, list) -> List.copyOf(list));
+        return Map.copyOf(conditions);
     }
 }
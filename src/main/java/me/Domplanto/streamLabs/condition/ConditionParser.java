@@ -0,0 +1,219 @@
+package me.Domplanto.streamLabs.condition;
+
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.exception.InvalidConditionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recursive descent parser for {@link Condition}s, precedence from lowest to highest: {@code ||}, {@code &&}, {@code !}.
+ * A comparison is two operands separated by an {@link Operator}, an operand is a placeholder, a number,
+ * a quoted string or plain text. Plain text on the right side of a comparison extends up to the next
+ * {@code &&}, {@code ||} or closing parenthesis of a group, so it can contain spaces and operator characters.
+ */
+class ConditionParser {
+    private final String condition;
+    private final List<Operator> operators;
+    private int position;
+    private int depth;
+
+    ConditionParser(String condition, List<Operator> operators) {
+        this.condition = condition;
+        this.operators = operators;
+    }
+
+    Condition parse() {
+        Condition result = parseOr();
+        skipWhitespace();
+        if (position < condition.length())
+            throw error("Unexpected character '" + condition.charAt(position) + "'");
+
+        return result;
+    }
+
+    /**
+     * Parses a donation condition like {@code EUR>10}, the left side is the currency it applies to.
+     */
+    Map.Entry<String, Condition> parseDonationCondition() {
+        skipWhitespace();
+        int start = position;
+        while (position < condition.length() && findOperator() == null)
+            position++;
+        String currency = condition.substring(start, position).trim();
+        if (currency.isEmpty())
+            throw error("Expected a currency");
+
+        Operator operator = expectOperator();
+        Condition comparison = new Comparison(operator, Comparison.DONATION_AMOUNT, parseRightOperand());
+        skipWhitespace();
+        if (position < condition.length())
+            throw error("Unexpected character '" + condition.charAt(position) + "'");
+
+        return Map.entry(currency, comparison);
+    }
+
+    private Condition parseOr() {
+        Condition first = parseAnd();
+        if (!lookingAt("||")) return first;
+
+        List<Condition> conditions = new ArrayList<>(List.of(first));
+        while (consume("||"))
+            conditions.add(parseAnd());
+        return new Or(conditions.toArray(Condition[]::new));
+    }
+
+    private Condition parseAnd() {
+        Condition first = parseUnary();
+        if (!lookingAt("&&")) return first;
+
+        List<Condition> conditions = new ArrayList<>(List.of(first));
+        while (consume("&&"))
+            conditions.add(parseUnary());
+        return new And(conditions.toArray(Condition[]::new));
+    }
+
+    private Condition parseUnary() {
+        if (consume("!")) return new Not(parseUnary());
+        if (consume("(")) {
+            depth++;
+            Condition result = parseOr();
+            if (!consume(")"))
+                throw error("Expected ')'");
+            depth--;
+            return result;
+        }
+
+        return parseComparison();
+    }
+
+    private Condition parseComparison() {
+        skipWhitespace();
+        if (position >= condition.length())
+            throw error("Unexpected end of condition");
+
+        Comparison.Operand left;
+        if (isQuote(condition.charAt(position))) {
+            left = Comparison.literal(parseQuoted());
+        } else {
+            int start = position;
+            while (position < condition.length() && findOperator() == null && !atOperandEnd()) {
+                // Placeholders are skipped as a whole, so their names can't be mistaken for operators
+                if (condition.charAt(position) == '{') {
+                    int end = condition.indexOf('}', position);
+                    position = end != -1 ? end + 1 : condition.length();
+                } else position++;
+            }
+
+            String text = condition.substring(start, position).trim();
+            if (text.isEmpty())
+                throw error("Expected a value");
+            left = Comparison.parseOperand(text);
+        }
+
+        Operator operator = expectOperator();
+        return new Comparison(operator, left, parseRightOperand());
+    }
+
+    private Comparison.Operand parseRightOperand() {
+        skipWhitespace();
+        if (position < condition.length() && isQuote(condition.charAt(position)))
+            return Comparison.literal(parseQuoted());
+
+        int start = position;
+        while (position < condition.length() && !atOperandEnd())
+            position++;
+        return Comparison.parseOperand(condition.substring(start, position).trim());
+    }
+
+    private String parseQuoted() {
+        int start = position;
+        char quote = condition.charAt(position++);
+        StringBuilder builder = new StringBuilder();
+        while (position < condition.length()) {
+            char c = condition.charAt(position++);
+            if (c == quote) return builder.toString();
+            if (c == '\\' && position < condition.length())
+                c = condition.charAt(position++);
+            builder.append(c);
+        }
+
+        position = start;
+        throw error("Unclosed quote");
+    }
+
+    private Operator expectOperator() {
+        skipWhitespace();
+        Operator operator = findOperator();
+        if (operator == null)
+            throw error(position < condition.length() ? "Expected an operator" : "Unexpected end of condition, expected an operator");
+
+        position += operator.getName().length();
+        return operator;
+    }
+
+    private Operator findOperator() {
+        for (Operator operator : operators)
+            if (condition.startsWith(operator.getName(), position)) return operator;
+
+        return null;
+    }
+
+    private boolean atOperandEnd() {
+        return condition.startsWith("&&", position) || condition.startsWith("||", position)
+                || (depth > 0 && condition.charAt(position) == ')');
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+
+    private boolean lookingAt(String token) {
+        skipWhitespace();
+        return condition.startsWith(token, position);
+    }
+
+    private boolean consume(String token) {
+        if (!lookingAt(token)) return false;
+
+        position += token.length();
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (position < condition.length() && Character.isWhitespace(condition.charAt(position)))
+            position++;
+    }
+
+    private InvalidConditionException error(String problem) {
+        return new InvalidConditionException(condition, position, problem);
+    }
+
+    private record And(Condition[] conditions) implements Condition {
+        @Override
+        public boolean check(EventContext context) {
+            for (Condition condition : conditions)
+                if (!condition.check(context)) return false;
+
+            return true;
+        }
+    }
+
+    private record Or(Condition[] conditions) implements Condition {
+        @Override
+        public boolean check(EventContext context) {
+            for (Condition condition : conditions)
+                if (condition.check(context)) return true;
+
+            return false;
+        }
+    }
+
+    private record Not(Condition condition) implements Condition {
+        @Override
+        public boolean check(EventContext context) {
+            return !condition.check(context);
+        }
+    }
+}
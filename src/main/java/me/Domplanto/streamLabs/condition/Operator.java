@@ -1,15 +1,38 @@
 package me.Domplanto.streamLabs.condition;
 
-import me.Domplanto.streamLabs.util.ReflectUtil;
+import me.Domplanto.streamLabs.ComponentRegistry;
+import me.Domplanto.streamLabs.processor.ComponentType;
+import org.jetbrains.annotations.NotNull;
 
-import java.util.Set;
+import java.util.List;
 
+@ComponentType("operators")
 public interface Operator {
     String getName();
 
-    boolean check(Object element1, Object element2);
+    /**
+     * Used if both elements are numbers.
+     */
+    boolean check(double element1, double element2);
 
-    static Set<? extends Operator> findOperatorClasses() {
-        return ReflectUtil.findClasses(Operator.class);
+    boolean check(String element1, String element2);
+
+    /**
+     * Makes an operator available to conditions, this is how other plugins can add their own operators.
+     * Conditions are compiled when the config is loaded, so operators registered later
+     * can only be used after the config has been reloaded.
+     *
+     * @throws IllegalArgumentException if the name is already taken, blank or contains whitespace, quotes, braces, parentheses, {@code &&} or {@code ||}
+     */
+    static void register(@NotNull Operator operator) {
+        OperatorRegistry.register(operator);
+    }
+
+    static List<Operator> getRegisteredOperators() {
+        return OperatorRegistry.getOperators();
+    }
+
+    static List<Operator> findOperatorClasses() {
+        return ComponentRegistry.operators();
     }
 }
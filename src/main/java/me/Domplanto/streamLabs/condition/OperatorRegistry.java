@@ -0,0 +1,37 @@
+package me.Domplanto.streamLabs.condition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Holds the operators conditions can use, the built-in ones are found on startup and other plugins can add their own
+ * through {@link Operator#register(Operator)}.
+ */
+class OperatorRegistry {
+    private static final Comparator<Operator> LONGEST_NAME_FIRST = Comparator.comparingInt((Operator o) -> o.getName().length()).reversed();
+    /**
+     * Sorted by descending name length, so an operator that starts with another one ({@code >=} and {@code >}) is matched first.
+     */
+    private static volatile List<Operator> operators = Operator.findOperatorClasses().stream()
+            .sorted(LONGEST_NAME_FIRST)
+            .toList();
+
+    static List<Operator> getOperators() {
+        return operators;
+    }
+
+    static synchronized void register(Operator operator) {
+        String name = operator.getName();
+        if (name == null || name.isBlank() || name.chars().anyMatch(c -> Character.isWhitespace(c) || "(){}\"'".indexOf(c) != -1)
+                || name.contains("&&") || name.contains("||"))
+            throw new IllegalArgumentException(String.format("\"%s\" is not a valid operator name", name));
+        if (operators.stream().anyMatch(registered -> registered.getName().equals(name)))
+            throw new IllegalArgumentException(String.format("An operator named \"%s\" is already registered", name));
+
+        List<Operator> newOperators = new ArrayList<>(operators);
+        newOperators.add(operator);
+        newOperators.sort(LONGEST_NAME_FIRST);
+        operators = List.copyOf(newOperators);
+    }
+}
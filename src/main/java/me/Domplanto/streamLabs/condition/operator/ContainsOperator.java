@@ -10,9 +10,25 @@ public class ContainsOperator implements Operator {
     }
 
     @Override
-    public boolean check(Object element1, Object element2) {
-        String s1 = element1.toString();
-        String s2 = element2.toString();
-        return s1.toLowerCase().contains(s2.toLowerCase());
+    public boolean check(double element1, double element2) {
+        return check(Double.toString(element1), Double.toString(element2));
+    }
+
+    @Override
+    public boolean check(String element1, String element2) {
+        return containsIgnoreCase(element1, element2);
+    }
+
+    /**
+     * Case-insensitive {@link String#contains(CharSequence)} that compares in place instead of lowercasing copies of both strings.
+     */
+    static boolean containsIgnoreCase(String string, String part) {
+        int lastStart = string.length() - part.length();
+        for (int i = 0; i <= lastStart; i++) {
+            if (string.regionMatches(true, i, part, 0, part.length()))
+                return true;
+        }
+
+        return false;
     }
 }
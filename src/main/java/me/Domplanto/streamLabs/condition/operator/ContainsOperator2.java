@@ -10,9 +10,12 @@ public class ContainsOperator2 implements Operator {
     }
 
     @Override
-    public boolean check(Object element1, Object element2) {
-        String s1 = element1.toString();
-        String s2 = element2.toString();
-        return s2.toLowerCase().contains(s1.toLowerCase());
+    public boolean check(double element1, double element2) {
+        return check(Double.toString(element1), Double.toString(element2));
+    }
+
+    @Override
+    public boolean check(String element1, String element2) {
+        return ContainsOperator.containsIgnoreCase(element2, element1);
     }
 }
@@ -10,7 +10,12 @@ public class EqualityOperator implements Operator {
     }
 
     @Override
-    public boolean check(Object element1, Object element2) {
+    public boolean check(double element1, double element2) {
+        return Double.compare(element1, element2) == 0;
+    }
+
+    @Override
+    public boolean check(String element1, String element2) {
         return element1.equals(element2);
     }
 }
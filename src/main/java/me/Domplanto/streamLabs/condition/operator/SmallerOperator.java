@@ -10,9 +10,12 @@ public class SmallerOperator implements Operator {
     }
 
     @Override
-    public boolean check(Object element1, Object element2) {
-        if (!(element1 instanceof Double d1) || !(element2 instanceof Double d2)) return false;
+    public boolean check(double element1, double element2) {
+        return element1 < element2;
+    }
 
-        return d1 < d2;
+    @Override
+    public boolean check(String element1, String element2) {
+        return false;
     }
 }
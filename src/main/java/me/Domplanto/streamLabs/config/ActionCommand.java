@@ -0,0 +1,49 @@
+package me.Domplanto.streamLabs.config;
+
+import me.Domplanto.streamLabs.exception.InvalidExpressionException;
+import me.Domplanto.streamLabs.expression.Expression;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A command of an action, compiled when the config is loaded.
+ * The optional {@code [expression]} prefix determines how often the command is executed.
+ */
+public record ActionCommand(
+        @Nullable Expression repeatExpression,
+        @NotNull PlaceholderTemplate command,
+        boolean containsPlayer
+) {
+    /**
+     * @param errorHandler Receives repeat expressions that could not be parsed, these commands are executed once
+     */
+    public static List<ActionCommand> parseAll(List<String> commandStrings, Consumer<InvalidExpressionException> errorHandler) {
+        return commandStrings.stream()
+                .map(commandString -> {
+                    Expression repeatExpression = null;
+                    if (commandString.startsWith("[") && commandString.contains("]")) {
+                        String content = commandString.substring(1, commandString.indexOf(']'));
+                        try {
+                            repeatExpression = Expression.parse(content);
+                        } catch (InvalidExpressionException e) {
+                            errorHandler.accept(e);
+                        }
+                        commandString = commandString.substring(commandString.indexOf(']') + 1);
+                    }
+
+                    PlaceholderTemplate command = PlaceholderTemplate.compile(commandString);
+                    return new ActionCommand(repeatExpression, command, command.containsPlaceholder("player"));
+                })
+                .toList();
+    }
+
+    public int getExecutionCount(EventContext context) {
+        if (repeatExpression == null) return 1;
+
+        double count = repeatExpression.evaluate(context);
+        return Double.isNaN(count) ? 1 : (int) count;
+    }
+}
@@ -1,71 +1,95 @@
 package me.Domplanto.streamLabs.config;
 
-import com.google.gson.JsonObject;
 import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.util.NumberUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
 import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.DoubleFunction;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 public class ActionPlaceholder {
     private final @NotNull String name;
-    private final PlaceholderFunction function;
+    private final @Nullable PlaceholderFunction function;
 
-    public ActionPlaceholder(@NotNull String name, PlaceholderFunction function) {
+    public ActionPlaceholder(@NotNull String name, @NotNull PlaceholderFunction function) {
         this.name = name;
-        this.function = function;
+        this.function = Objects.requireNonNull(function);
     }
 
-    public static String replacePlaceholders(String originalString, StreamlabsEvent event, RewardsConfig config, JsonObject baseObject) {
-        return replacePlaceholders(originalString, event, config, baseObject, 0);
+    /**
+     * For subclasses that compute their value themselves by overriding {@link #getValue}.
+     */
+    protected ActionPlaceholder(@NotNull String name) {
+        this.name = name;
+        this.function = null;
     }
 
-    public static String replacePlaceholders(String originalString, StreamlabsEvent event, RewardsConfig config, JsonObject baseObject, int plExecutionCount) {
-        Collection<ActionPlaceholder> placeholders = event.getPlaceholders();
-        placeholders.addAll(config.getCustomPlaceholders());
-
-        boolean containsPlaceholders = false;
-        for (ActionPlaceholder placeholder : placeholders) {
-            String ph = String.format("{%s}", placeholder.name());
-            if (!originalString.contains(ph)) continue;
+    public @NotNull String name() {
+        return name;
+    }
 
-            containsPlaceholders = true;
-            originalString = originalString.replace(ph,
-                    placeholder.function().execute(baseObject, event));
-        }
+    /**
+     * Computes the value, use {@link EventContext#getValue(String)} to compute it only once per event.
+     */
+    public String getValue(EventContext context) {
+        return Objects.requireNonNull(function).execute(context.getPayload(), context.getEvent());
+    }
 
-        plExecutionCount++;
-        if (plExecutionCount > 1000)
-            return "(Infinite placeholder loop detected)";
-        if (containsPlaceholders)
-            originalString = replacePlaceholders(originalString, event, config, baseObject, plExecutionCount);
+    /**
+     * @return The value used in arithmetic expressions, {@link Double#NaN} if the placeholder is not a number
+     */
+    public double getNumericValue(EventContext context) {
+        if (this.isNumeric())
+            return Objects.requireNonNull(function.numericFunction).applyAsDouble(context.getPayload());
 
-        return originalString;
+        return NumberUtil.parseDouble(this.getValue(context));
     }
 
-    public @NotNull String name() {
-        return name;
+    /**
+     * @return Whether the value is computed as a number and then formatted
+     */
+    public boolean isNumeric() {
+        return function != null && function.numericFunction != null;
     }
 
-    public PlaceholderFunction function() {
-        return function;
+    /**
+     * Formats a value computed by {@link #getNumericValue} the same way {@link #getValue} does, only for numeric placeholders.
+     */
+    public String formatNumericValue(double value) {
+        if (!this.isNumeric())
+            throw new UnsupportedOperationException(String.format("Placeholder %s is not numeric", name));
+
+        return Objects.requireNonNull(function.numericFormatter).apply(value);
     }
 
     public static class PlaceholderFunction {
         @Nullable
-        private final Function<JsonObject, String> valueFunction;
+        private final Function<EventPayload, String> valueFunction;
+        @Nullable
+        private final BiFunction<EventPayload, StreamlabsEvent, String> eventDependentFunction;
+        @Nullable
+        private final ToDoubleFunction<EventPayload> numericFunction;
         @Nullable
-        private final BiFunction<JsonObject, StreamlabsEvent, String> eventDependentFunction;
+        private final DoubleFunction<String> numericFormatter;
 
-        private PlaceholderFunction(@Nullable Function<JsonObject, String> valueFunction, @Nullable BiFunction<JsonObject, StreamlabsEvent, String> eventDependentValueFunction) {
+        private PlaceholderFunction(@Nullable Function<EventPayload, String> valueFunction, @Nullable BiFunction<EventPayload, StreamlabsEvent, String> eventDependentValueFunction) {
+            this(valueFunction, eventDependentValueFunction, null, null);
+        }
+
+        private PlaceholderFunction(@Nullable Function<EventPayload, String> valueFunction, @Nullable BiFunction<EventPayload, StreamlabsEvent, String> eventDependentValueFunction,
+                                    @Nullable ToDoubleFunction<EventPayload> numericFunction, @Nullable DoubleFunction<String> numericFormatter) {
             if (valueFunction == null && eventDependentValueFunction == null)
                 throw new NullPointerException();
 
             this.valueFunction = valueFunction;
             this.eventDependentFunction = eventDependentValueFunction;
+            this.numericFunction = numericFunction;
+            this.numericFormatter = numericFormatter;
         }
 
         public static PlaceholderFunction of(@NotNull String staticValue) {
@@ -73,20 +97,29 @@ public class ActionPlaceholder {
             return new PlaceholderFunction(o -> staticValue, null);
         }
 
-        public static PlaceholderFunction of(Function<JsonObject, String> valueFunction) {
+        public static PlaceholderFunction of(Function<EventPayload, String> valueFunction) {
             return new PlaceholderFunction(Objects.requireNonNull(valueFunction), null);
         }
 
-        public static PlaceholderFunction of(BiFunction<JsonObject, StreamlabsEvent, String> valueFunction) {
+        public static PlaceholderFunction of(BiFunction<EventPayload, StreamlabsEvent, String> valueFunction) {
             return new PlaceholderFunction(null, Objects.requireNonNull(valueFunction));
         }
 
-        public String execute(JsonObject object, StreamlabsEvent event) {
+        /**
+         * A numeric placeholder, expressions read the number directly instead of parsing the formatted string.
+         */
+        public static PlaceholderFunction ofNumber(ToDoubleFunction<EventPayload> numericFunction, DoubleFunction<String> formatter) {
+            Objects.requireNonNull(numericFunction);
+            Objects.requireNonNull(formatter);
+            return new PlaceholderFunction(o -> formatter.apply(numericFunction.applyAsDouble(o)), null, numericFunction, formatter);
+        }
+
+        public String execute(EventPayload payload, StreamlabsEvent event) {
             if (eventDependentFunction == null && valueFunction == null)
                 throw new NullPointerException();
 
-            return eventDependentFunction != null ? eventDependentFunction.apply(object, event)
-                    : valueFunction.apply(object);
+            return eventDependentFunction != null ? eventDependentFunction.apply(payload, event)
+                    : valueFunction.apply(payload);
         }
     }
 }
@@ -0,0 +1,25 @@
+package me.Domplanto.streamLabs.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Combines the events of an action that are sent by the same user in quick succession, like the subscriptions
+ * of a gift bomb, into one aggregate event that triggers the action instead.
+ *
+ * @param windowMillis  How long events are collected after the first one
+ * @param maxExecutions How often the aggregate executes the action at most, once for every combined event up to this
+ */
+public record AggregationWindow(long windowMillis, int maxExecutions) {
+    /**
+     * @return The window of an action's aggregation section, or null if events shouldn't be combined
+     */
+    public static @Nullable AggregationWindow of(@Nullable ConfigurationSection section) {
+        if (section == null) return null;
+
+        long windowMillis = section.getLong("window_milliseconds", 0);
+        if (windowMillis <= 0) return null;
+
+        return new AggregationWindow(windowMillis, Math.max(1, section.getInt("max_executions", 1)));
+    }
+}
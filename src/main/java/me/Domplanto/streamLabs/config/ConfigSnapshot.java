@@ -0,0 +1,121 @@
+package me.Domplanto.streamLabs.config;
+
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.message.TitleTimings;
+import me.Domplanto.streamLabs.socket.StreamlabsSocketClient;
+import me.Domplanto.streamLabs.throttle.ThrottleSettings;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Everything built from one version of config.yml. A snapshot is compiled completely before it is published and
+ * never changed afterwards, changes are published as a new snapshot. Events that are being processed while a new
+ * one is published finish on the old one.
+ *
+ * @param config        The parsed file, for settings that are read when they are used
+ * @param rewardsConfig The actions of the default streamer
+ * @param streamers     The default streamer first, then the ones from the streamers section in their order
+ * @param throttling    The limits of all actions together, null if there are none
+ */
+public record ConfigSnapshot(@NotNull FileConfiguration config, @NotNull RewardsConfig rewardsConfig,
+                             @NotNull String socketUrl, @NotNull Map<String, StreamerProfile> streamers,
+                             boolean debugMode, @NotNull TitleTimings titleTimings,
+                             @Nullable ThrottleSettings throttling) {
+    /**
+     * Reads and compiles the config file, which takes a while for large configs and shouldn't be done on the main thread.
+     *
+     * @param defaults The config bundled with the plugin, used for settings missing from the file
+     * @throws InvalidConfigurationException If the file is not valid YAML, unlike Bukkit's loader this doesn't fall back to an empty config
+     */
+    public static ConfigSnapshot load(File file, @Nullable Configuration defaults, Collection<? extends StreamlabsEvent> events, Logger logger)
+            throws IOException, InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.load(file);
+        if (defaults != null)
+            config.setDefaults(defaults);
+        return of(config, events, logger);
+    }
+
+    public static ConfigSnapshot of(FileConfiguration config, Collection<? extends StreamlabsEvent> events, Logger logger) {
+        RewardsConfig rewardsConfig = new RewardsConfig(config, events, logger);
+        Map<String, StreamerProfile> streamers = new LinkedHashMap<>();
+        streamers.put(StreamerProfile.DEFAULT_ID, new StreamerProfile(StreamerProfile.DEFAULT_ID,
+                config.getString("streamlabs.socket_token", ""), config.getStringList("affected_players"), rewardsConfig));
+
+        ConfigurationSection streamerSections = config.getConfigurationSection("streamers");
+        for (String id : streamerSections != null ? streamerSections.getKeys(false) : Collections.<String>emptySet()) {
+            ConfigurationSection section = streamerSections.getConfigurationSection(id);
+            if (section == null) continue;
+            if (id.equals(StreamerProfile.DEFAULT_ID)) {
+                logger.warning(String.format("The streamer name \"%s\" is reserved for the streamer in the streamlabs section, the streamer will be ignored", id));
+                continue;
+            }
+
+            ConfigurationSection actions = section.getConfigurationSection("actions");
+            streamers.put(id, new StreamerProfile(id, section.getString("socket_token", ""), section.getStringList("affected_players"),
+                    actions != null ? new RewardsConfig(config, actions, events, logger) : rewardsConfig));
+        }
+
+        return new ConfigSnapshot(config, rewardsConfig,
+                config.getString("streamlabs.socket_url", StreamlabsSocketClient.DEFAULT_SOCKET_URL),
+                Collections.unmodifiableMap(streamers),
+                config.getBoolean("debug_mode", false),
+                TitleTimings.of(config.getConfigurationSection("titles")),
+                ThrottleSettings.ofGlobal(config.getConfigurationSection("throttling"), logger));
+    }
+
+    /**
+     * Copies the config with the affected players of a streamer replaced, the actions are shared with this snapshot.
+     *
+     * @throws IllegalArgumentException If the streamer doesn't exist
+     */
+    public ConfigSnapshot withAffectedPlayers(String streamerId, List<String> players) {
+        StreamerProfile streamer = streamers.get(streamerId);
+        if (streamer == null)
+            throw new IllegalArgumentException(String.format("Unknown streamer \"%s\"", streamerId));
+
+        YamlConfiguration configCopy = new YamlConfiguration();
+        try {
+            configCopy.loadFromString(config.saveToString());
+        } catch (InvalidConfigurationException e) {
+            throw new IllegalStateException("Failed to copy the config", e);
+        }
+        if (config.getDefaults() != null)
+            configCopy.setDefaults(config.getDefaults());
+        configCopy.set(streamerId.equals(StreamerProfile.DEFAULT_ID) ? "affected_players"
+                : String.format("streamers.%s.affected_players", streamerId), players);
+
+        Map<String, StreamerProfile> streamersCopy = new LinkedHashMap<>(streamers);
+        streamersCopy.put(streamerId, new StreamerProfile(streamerId, streamer.socketToken(), List.copyOf(players), streamer.rewardsConfig()));
+        return new ConfigSnapshot(configCopy, rewardsConfig, socketUrl, Collections.unmodifiableMap(streamersCopy),
+                debugMode, titleTimings, throttling);
+    }
+
+    public @Nullable StreamerProfile getStreamer(String id) {
+        return streamers.get(id);
+    }
+
+    /**
+     * @return Whether the connection of the streamer has to be replaced to use the settings of this snapshot instead of the previous one
+     */
+    public boolean connectionChanged(ConfigSnapshot previous, String streamerId) {
+        StreamerProfile streamer = streamers.get(streamerId);
+        StreamerProfile previousStreamer = previous.streamers.get(streamerId);
+        return streamer == null || previousStreamer == null || !socketUrl.equals(previous.socketUrl)
+                || !streamer.socketToken().equals(previousStreamer.socketToken());
+    }
+}
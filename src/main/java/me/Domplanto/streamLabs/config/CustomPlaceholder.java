@@ -1,45 +1,53 @@
 package me.Domplanto.streamLabs.config;
 
-import com.google.gson.JsonObject;
 import me.Domplanto.streamLabs.condition.Condition;
-import me.Domplanto.streamLabs.events.StreamlabsEvent;
 import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public final class CustomPlaceholder extends ActionPlaceholder {
-    public CustomPlaceholder(@NotNull String id, @Nullable String defaultValue, List<StateBasedValue> values) {
-        super(id, PlaceholderFunction.of((object, event) -> getValue(values, defaultValue, event, object)));
+    private final @Nullable PlaceholderTemplate defaultValue;
+    private final List<StateBasedValue> values;
+
+    public CustomPlaceholder(@NotNull String id, @Nullable PlaceholderTemplate defaultValue, List<StateBasedValue> values) {
+        super(id);
+        this.defaultValue = defaultValue;
+        this.values = values;
+    }
+
+    @Override
+    public String getValue(EventContext context) {
+        PlaceholderTemplate template = findValue(context);
+        return template != null ? template.render(context) : "";
     }
 
-    @NotNull
-    private static String getValue(List<StateBasedValue> values, String defaultValue, StreamlabsEvent event, JsonObject object) {
+    @Nullable
+    private PlaceholderTemplate findValue(EventContext context) {
         for (StateBasedValue value : values) {
-            if (value.checkConditions(event, object))
-                return value.value() != null ? value.value() : value.id();
+            if (value.checkConditions(context))
+                return value.value();
         }
 
-        return defaultValue != null ? defaultValue : "";
+        return defaultValue;
     }
 
     public record StateBasedValue(
             @NotNull String id,
-            @Nullable String value,
-            @Nullable List<String> conditionStrings,
-            @Nullable List<String> donationConditionStrings
+            @NotNull PlaceholderTemplate value,
+            @NotNull List<Condition> conditions,
+            @NotNull Map<String, List<Condition>> donationConditions
     ) {
-        public boolean checkConditions(StreamlabsEvent event, JsonObject object) {
-            ArrayList<Condition> conditionList = new ArrayList<>();
-            if (this.conditionStrings() != null)
-                conditionList.addAll(Condition.parseAll(this.conditionStrings(), event));
-            if (event instanceof BasicDonationEvent donationEvent && this.donationConditionStrings() != null)
-                conditionList.addAll(Condition.parseDonationConditions(this.donationConditionStrings(), donationEvent, object));
-
-            for (Condition condition : conditionList)
-                if (!condition.check(event, object)) return false;
+        public boolean checkConditions(EventContext context) {
+            for (Condition condition : this.conditions())
+                if (!condition.check(context)) return false;
+
+            if (context.getEvent() instanceof BasicDonationEvent donationEvent) {
+                for (Condition condition : this.donationConditions().getOrDefault(donationEvent.getCurrency(context.getPayload()), List.of()))
+                    if (!condition.check(context)) return false;
+            }
 
             return true;
         }
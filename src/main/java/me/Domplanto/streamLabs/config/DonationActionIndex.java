@@ -0,0 +1,91 @@
+package me.Domplanto.streamLabs.config;
+
+import me.Domplanto.streamLabs.condition.AmountRange;
+
+import java.util.*;
+
+/**
+ * Finds the actions of a donation event whose donation conditions can accept a donation, without checking the
+ * conditions of every action. The amount ranges of the actions are split at their boundaries into regions that
+ * each know which actions accept them, so a lookup is a binary search over the boundaries of the currency.
+ * <p>
+ * The candidates are a superset of the actions whose conditions are met, they still have to be checked.
+ */
+public class DonationActionIndex {
+    private final List<RewardsConfig.Action> actions;
+    private final Map<String, CurrencyIndex> currencies;
+
+    private DonationActionIndex(List<RewardsConfig.Action> actions, Map<String, CurrencyIndex> currencies) {
+        this.actions = actions;
+        this.currencies = currencies;
+    }
+
+    public static DonationActionIndex build(List<RewardsConfig.Action> actions) {
+        Set<String> currencies = new HashSet<>();
+        for (RewardsConfig.Action action : actions)
+            currencies.addAll(action.getDonationCurrencies());
+
+        Map<String, CurrencyIndex> indexes = new HashMap<>();
+        for (String currency : currencies)
+            indexes.put(currency, CurrencyIndex.build(actions, currency));
+        return new DonationActionIndex(List.copyOf(actions), Map.copyOf(indexes));
+    }
+
+    /**
+     * @return The actions that may accept the donation, in the order they were configured in
+     */
+    public List<RewardsConfig.Action> findCandidates(String currency, double amount) {
+        CurrencyIndex index = currencies.get(currency);
+        // No action has conditions for the currency (so none can fail them) or the amount can't be compared
+        if (index == null || Double.isNaN(amount)) return actions;
+
+        return index.find(amount);
+    }
+
+    /**
+     * @param boundaries Sorted distinct ends of all amount ranges of the currency
+     * @param regions    The candidates below the first boundary, at the first boundary, between the first and the
+     *                   second boundary and so on, {@code 2 * boundaries.length + 1} regions in total
+     */
+    private record CurrencyIndex(double[] boundaries, List<RewardsConfig.Action>[] regions) {
+        @SuppressWarnings("unchecked")
+        private static CurrencyIndex build(List<RewardsConfig.Action> actions, String currency) {
+            AmountRange[] ranges = new AmountRange[actions.size()];
+            TreeSet<Double> boundarySet = new TreeSet<>();
+            for (int i = 0; i < ranges.length; i++) {
+                RewardsConfig.Action action = actions.get(i);
+                ranges[i] = AmountRange.of(action.getDonationConditions(currency));
+                addBoundary(boundarySet, ranges[i].min());
+                addBoundary(boundarySet, ranges[i].max());
+            }
+
+            double[] boundaries = boundarySet.stream().mapToDouble(Double::doubleValue).toArray();
+            List<RewardsConfig.Action>[] regions = new List[boundaries.length * 2 + 1];
+            for (int region = 0; region < regions.length; region++) {
+                // Every range ends at a boundary, so all amounts of a region are accepted by the same ranges
+                double amount = region % 2 == 1 ? boundaries[region / 2]
+                        : boundaries.length == 0 ? 0
+                        : region == 0 ? Math.nextDown(boundaries[0])
+                        : Math.nextUp(boundaries[region / 2 - 1]);
+                List<RewardsConfig.Action> candidates = new ArrayList<>();
+                for (int i = 0; i < ranges.length; i++)
+                    if (ranges[i].contains(amount))
+                        candidates.add(actions.get(i));
+                regions[region] = region > 0 && regions[region - 1].equals(candidates) ? regions[region - 1] : List.copyOf(candidates);
+            }
+
+            return new CurrencyIndex(boundaries, regions);
+        }
+
+        private static void addBoundary(Set<Double> boundaries, double value) {
+            // -0.0 is added as 0.0, they are equal to the conditions but not to the binary search
+            if (Double.isFinite(value))
+                boundaries.add(value + 0.0);
+        }
+
+        private List<RewardsConfig.Action> find(double amount) {
+            int index = Arrays.binarySearch(boundaries, amount + 0.0);
+            return regions[index >= 0 ? index * 2 + 1 : (-index - 1) * 2];
+        }
+    }
+}
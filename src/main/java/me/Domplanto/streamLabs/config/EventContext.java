@@ -0,0 +1,93 @@
+package me.Domplanto.streamLabs.config;
+
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.util.NumberUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The state of one received event while its actions are checked and executed. Every placeholder is computed at most
+ * once per event, later references (including the ones inside other custom placeholders) use the cached value.
+ * <p>
+ * A context belongs to a single event and is not thread-safe.
+ */
+public class EventContext {
+    private final PlaceholderRegistry placeholders;
+    private final EventPayload payload;
+    private final String[] values;
+    private final double[] numericValues;
+    private final boolean[] numericValueComputed;
+
+    public EventContext(PlaceholderRegistry placeholders, EventPayload payload) {
+        this.placeholders = placeholders;
+        this.payload = payload;
+        this.values = new String[placeholders.size()];
+        this.numericValues = new double[placeholders.size()];
+        this.numericValueComputed = new boolean[placeholders.size()];
+    }
+
+    public PlaceholderRegistry getPlaceholders() {
+        return placeholders;
+    }
+
+    public @NotNull StreamlabsEvent getEvent() {
+        return placeholders.getEvent();
+    }
+
+    public EventPayload getPayload() {
+        return payload;
+    }
+
+    /**
+     * @return The value of the placeholder, or null if there is no placeholder with that name
+     */
+    public @Nullable String getValue(String name) {
+        int index = placeholders.indexOf(name);
+        return index != -1 ? this.getValue(index) : null;
+    }
+
+    /**
+     * @return The value of the placeholder as a number, {@link Double#NaN} if it doesn't exist or is not a number
+     */
+    public double getNumericValue(String name) {
+        int index = placeholders.indexOf(name);
+        return index != -1 ? this.getNumericValue(index) : Double.NaN;
+    }
+
+    /**
+     * Like {@link #getValue(String)}, but only for placeholders provided by the event itself.
+     */
+    public @Nullable String getEventValue(String name) {
+        return placeholders.getEventPlaceholder(name) != null ? this.getValue(name) : null;
+    }
+
+    /**
+     * Like {@link #getNumericValue(String)}, but only for placeholders provided by the event itself.
+     */
+    public double getEventNumericValue(String name) {
+        return placeholders.getEventPlaceholder(name) != null ? this.getNumericValue(name) : Double.NaN;
+    }
+
+    private String getValue(int index) {
+        String value = values[index];
+        if (value == null) {
+            ActionPlaceholder placeholder = placeholders.get(index);
+            // Numeric placeholders are formatted from the cached number instead of being computed a second time
+            value = placeholder.isNumeric() ? placeholder.formatNumericValue(this.getNumericValue(index)) : placeholder.getValue(this);
+            values[index] = value;
+        }
+
+        return value;
+    }
+
+    private double getNumericValue(int index) {
+        if (!numericValueComputed[index]) {
+            ActionPlaceholder placeholder = placeholders.get(index);
+            numericValues[index] = placeholder.isNumeric() ? placeholder.getNumericValue(this) : NumberUtil.parseDouble(this.getValue(index));
+            numericValueComputed[index] = true;
+        }
+
+        return numericValues[index];
+    }
+}
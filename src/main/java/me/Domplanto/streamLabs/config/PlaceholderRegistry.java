@@ -0,0 +1,83 @@
+package me.Domplanto.streamLabs.config;
+
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable placeholder lookup for one event type, created once per config snapshot.
+ * Placeholders of the event take precedence over custom placeholders with the same name.
+ */
+public class PlaceholderRegistry {
+    private final @NotNull StreamlabsEvent event;
+    private final Map<String, ActionPlaceholder> eventPlaceholders;
+    private final Map<String, ActionPlaceholder> placeholders;
+    private final Map<String, Integer> indexes;
+    private final ActionPlaceholder[] placeholdersByIndex;
+
+    public PlaceholderRegistry(@NotNull StreamlabsEvent event, Collection<? extends ActionPlaceholder> eventPlaceholders, Collection<? extends ActionPlaceholder> customPlaceholders) {
+        Map<String, ActionPlaceholder> eventPlaceholderMap = new HashMap<>();
+        for (ActionPlaceholder placeholder : eventPlaceholders)
+            eventPlaceholderMap.put(placeholder.name(), placeholder);
+
+        Map<String, ActionPlaceholder> placeholderMap = new HashMap<>(eventPlaceholderMap);
+        for (ActionPlaceholder placeholder : customPlaceholders)
+            placeholderMap.putIfAbsent(placeholder.name(), placeholder);
+
+        this.event = event;
+        this.eventPlaceholders = Map.copyOf(eventPlaceholderMap);
+        this.placeholders = Map.copyOf(placeholderMap);
+
+        Map<String, Integer> indexMap = new HashMap<>();
+        this.placeholdersByIndex = new ActionPlaceholder[placeholderMap.size()];
+        for (Map.Entry<String, ActionPlaceholder> entry : placeholderMap.entrySet()) {
+            this.placeholdersByIndex[indexMap.size()] = entry.getValue();
+            indexMap.put(entry.getKey(), indexMap.size());
+        }
+        this.indexes = Map.copyOf(indexMap);
+    }
+
+    public static PlaceholderRegistry of(@NotNull StreamlabsEvent event, Collection<? extends ActionPlaceholder> customPlaceholders) {
+        return new PlaceholderRegistry(event, event.getPlaceholders(), customPlaceholders);
+    }
+
+    public @NotNull StreamlabsEvent getEvent() {
+        return event;
+    }
+
+    public @Nullable ActionPlaceholder get(String name) {
+        return placeholders.get(name);
+    }
+
+    /**
+     * Only looks up placeholders provided by the event itself, custom placeholders are not included.
+     */
+    public @Nullable ActionPlaceholder getEventPlaceholder(String name) {
+        return eventPlaceholders.get(name);
+    }
+
+    /**
+     * @return The index of the placeholder between 0 and {@link #size()}, or -1 if there is none with that name
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    public @NotNull ActionPlaceholder get(int index) {
+        return placeholdersByIndex[index];
+    }
+
+    public Set<String> getNames() {
+        return placeholders.keySet();
+    }
+
+    public int size() {
+        return placeholders.size();
+    }
+}
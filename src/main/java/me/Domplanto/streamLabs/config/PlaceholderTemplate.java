@@ -0,0 +1,153 @@
+package me.Domplanto.streamLabs.config;
+
+import me.Domplanto.streamLabs.exception.InvalidExpressionException;
+import me.Domplanto.streamLabs.expression.Expression;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A string split into literal chunks and placeholder slots when the config is loaded.
+ * Rendering appends all segments to a single builder in one pass, values inserted
+ * by placeholders are not scanned for placeholders again.
+ * Slots like {@code {amount*10}} are compiled into an {@link Expression} and render the formatted result.
+ */
+public class PlaceholderTemplate {
+    private final @NotNull String source;
+    private final Segment[] segments;
+
+    private PlaceholderTemplate(@NotNull String source, Segment[] segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    public static PlaceholderTemplate compile(@NotNull String string) {
+        return compile(string, name -> true);
+    }
+
+    /**
+     * @param resolvable Decides whether a placeholder name becomes a slot, names that are
+     *                   rejected stay in the rendered string as they are
+     */
+    public static PlaceholderTemplate compile(@NotNull String string, @NotNull Predicate<String> resolvable) {
+        List<Segment> segments = new ArrayList<>();
+        int literalStart = 0;
+        int start = 0;
+        while ((start = string.indexOf('{', start)) != -1) {
+            int end = start + 1;
+            while (end < string.length() && string.charAt(end) != '{' && string.charAt(end) != '}')
+                end++;
+            if (end >= string.length()) break;
+            if (string.charAt(end) == '{' || end == start + 1) {
+                start = string.charAt(end) == '{' ? end : end + 1;
+                continue;
+            }
+
+            String name = string.substring(start + 1, end);
+            if (!resolvable.test(name)) {
+                start = end + 1;
+                continue;
+            }
+
+            if (literalStart < start)
+                segments.add(new Literal(string.substring(literalStart, start)));
+            segments.add(compileSlot(name, resolvable));
+            literalStart = start = end + 1;
+        }
+
+        if (literalStart < string.length())
+            segments.add(new Literal(string.substring(literalStart)));
+        return new PlaceholderTemplate(string, segments.toArray(Segment[]::new));
+    }
+
+    private static Segment compileSlot(String name, Predicate<String> resolvable) {
+        if (isPlainName(name)) return new Slot(name);
+
+        try {
+            return new ExpressionSlot(name, Expression.parse(name, resolvable));
+        } catch (InvalidExpressionException e) {
+            // Not an expression, most likely JSON or other text in braces
+            return new Slot(name);
+        }
+    }
+
+    private static boolean isPlainName(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_') return false;
+        }
+
+        return true;
+    }
+
+    public String render(EventContext context) {
+        if (segments.length == 1 && segments[0] instanceof Literal literal)
+            return literal.text();
+
+        StringBuilder builder = new StringBuilder(source.length() + 16);
+        this.appendTo(builder, context);
+        return builder.toString();
+    }
+
+    public void appendTo(StringBuilder builder, EventContext context) {
+        for (Segment segment : segments)
+            segment.appendTo(builder, context);
+    }
+
+    public boolean containsPlaceholder(String name) {
+        for (Segment segment : segments)
+            if ((segment instanceof Slot slot && slot.name().equals(name))
+                    || (segment instanceof ExpressionSlot expressionSlot && expressionSlot.source().equals(name)))
+                return true;
+
+        return false;
+    }
+
+    public @NotNull String getSource() {
+        return source;
+    }
+
+    private interface Segment {
+        void appendTo(StringBuilder builder, EventContext context);
+    }
+
+    private record Literal(String text) implements Segment {
+        @Override
+        public void appendTo(StringBuilder builder, EventContext context) {
+            builder.append(text);
+        }
+    }
+
+    private record Slot(String name) implements Segment {
+        @Override
+        public void appendTo(StringBuilder builder, EventContext context) {
+            String value = context.getValue(name);
+            if (value != null)
+                builder.append(value);
+            else
+                builder.append('{').append(name).append('}');
+        }
+    }
+
+    /**
+     * A placeholder whose name happens to look like an expression still takes precedence.
+     */
+    private record ExpressionSlot(String source, Expression expression) implements Segment {
+        @Override
+        public void appendTo(StringBuilder builder, EventContext context) {
+            String placeholderValue = context.getValue(source);
+            if (placeholderValue != null) {
+                builder.append(placeholderValue);
+                return;
+            }
+
+            double value = expression.evaluate(context);
+            if (Double.isNaN(value))
+                builder.append('{').append(source).append('}');
+            else
+                builder.append(Expression.format(value));
+        }
+    }
+}
@@ -1,33 +1,57 @@
 package me.Domplanto.streamLabs.config;
 
-import com.google.gson.JsonObject;
 import me.Domplanto.streamLabs.condition.Condition;
 import me.Domplanto.streamLabs.events.StreamlabsEvent;
 import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import me.Domplanto.streamLabs.exception.InvalidConditionException;
 import me.Domplanto.streamLabs.message.Message;
+import me.Domplanto.streamLabs.throttle.ThrottleSettings;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
 
+/**
+ * The compiled actions and custom placeholders of a config, it is not changed after it has been built.
+ */
 public class RewardsConfig {
-    private Map<String, List<Action>> actionsByEvent;
-    private Map<String, CustomPlaceholder> customPlaceholders;
+    private final Logger logger;
+    private final Map<String, List<Action>> actionsByEvent;
+    /**
+     * Only filled while the config is being built
+     */
+    private final Map<String, CustomPlaceholder> customPlaceholders = new HashMap<>();
+    private final Map<String, PlaceholderRegistry> placeholdersByEvent;
+    private final Map<String, DonationActionIndex> donationIndexes;
 
-    public RewardsConfig(FileConfiguration config) {
-        this.load(config);
+    public RewardsConfig(FileConfiguration config, Collection<? extends StreamlabsEvent> events, Logger logger) {
+        this(config, null, events, logger);
     }
 
-    public void load(FileConfiguration config) {
-        this.actionsByEvent = new HashMap<>();
-        this.customPlaceholders = new HashMap<>();
-        ConfigurationSection actions = config.getConfigurationSection("actions");
-        if (actions == null) return;
+    /**
+     * @param actionOverrides Actions that replace the ones with the same name in the actions section or are added to them
+     */
+    public RewardsConfig(FileConfiguration config, @Nullable ConfigurationSection actionOverrides, Collection<? extends StreamlabsEvent> events, Logger logger) {
+        this.logger = logger;
+        ConfigurationSection customPlaceholders = config.getConfigurationSection("custom_placeholders");
+        if (customPlaceholders != null)
+            this.loadCustomPlaceholders(customPlaceholders);
+        Map<String, PlaceholderRegistry> placeholdersByEvent = new HashMap<>();
+        for (StreamlabsEvent event : events)
+            placeholdersByEvent.put(event.getId(), PlaceholderRegistry.of(event, this.customPlaceholders.values()));
+        this.placeholdersByEvent = Map.copyOf(placeholdersByEvent);
 
-        for (String actionKey : actions.getKeys(false)) {
-            ConfigurationSection actionSection = actions.getConfigurationSection(actionKey);
-            if (actionSection == null) continue;
+        Map<String, ConfigurationSection> actionSections = new LinkedHashMap<>();
+        addSections(actionSections, config.getConfigurationSection("actions"));
+        addSections(actionSections, actionOverrides);
+        Map<String, List<Action>> actionsByEvent = new HashMap<>();
+        for (Map.Entry<String, ConfigurationSection> entry : actionSections.entrySet()) {
+            String actionKey = entry.getKey();
+            ConfigurationSection actionSection = entry.getValue();
 
             Action action = new Action(
                     actionKey,
@@ -36,54 +60,202 @@ public class RewardsConfig {
                     getStringList(actionSection, "messages"),
                     getStringList(actionSection, "conditions"),
                     getStringList(actionSection, "donation_conditions"),
-                    getStringList(actionSection, "commands")
+                    getStringList(actionSection, "commands"),
+                    AggregationWindow.of(actionSection.getConfigurationSection("aggregation")),
+                    ThrottleSettings.of(actionSection.getConfigurationSection("throttle"), this.logger),
+                    this.logger
             );
 
             // Store the action by its event type for easy lookup
             actionsByEvent.computeIfAbsent(action.getEventType(), k -> new ArrayList<>())
                     .add(action);
         }
+        actionsByEvent.replaceAll((eventType, eventActions) -> List.copyOf(eventActions));
+        this.actionsByEvent = Map.copyOf(actionsByEvent);
 
-        ConfigurationSection customPlaceholders = config.getConfigurationSection("custom_placeholders");
-        if (customPlaceholders == null) return;
+        Map<String, DonationActionIndex> donationIndexes = new HashMap<>();
+        for (StreamlabsEvent event : events) {
+            List<Action> eventActions = this.actionsByEvent.get(event.getId());
+            if (event instanceof BasicDonationEvent && eventActions != null)
+                donationIndexes.put(event.getId(), DonationActionIndex.build(eventActions));
+        }
+        this.donationIndexes = Map.copyOf(donationIndexes);
+    }
 
+    private static void addSections(Map<String, ConfigurationSection> sections, @Nullable ConfigurationSection parent) {
+        if (parent == null) return;
+
+        for (String key : parent.getKeys(false)) {
+            ConfigurationSection section = parent.getConfigurationSection(key);
+            if (section != null)
+                sections.put(key, section);
+        }
+    }
+
+    private void loadCustomPlaceholders(ConfigurationSection customPlaceholders) {
+        Map<String, ConfigurationSection> sections = new LinkedHashMap<>();
         for (String placeholderId : customPlaceholders.getKeys(false)) {
             ConfigurationSection placeholderSection = customPlaceholders.getConfigurationSection(placeholderId);
-            if (placeholderSection == null) continue;
-
-            List<CustomPlaceholder.StateBasedValue> values = placeholderSection.getKeys(false)
-                    .stream()
-                    .map(placeholderSection::getConfigurationSection)
-                    .filter(Objects::nonNull)
-                    .filter(section -> !section.getName().equals("default_value"))
-                    .map(section -> new CustomPlaceholder.StateBasedValue(
-                            section.getName(),
-                            getString(section, "value"),
-                            getStringList(section, "conditions"),
-                            getStringList(section, "donation_conditions")
-                    )).toList();
+            if (placeholderSection != null)
+                sections.put(placeholderId, placeholderSection);
+        }
 
-            this.customPlaceholders.put(placeholderId, new CustomPlaceholder(placeholderId,
-                    getString(placeholderSection, "default_value"), values));
+        Map<String, Set<String>> references = new HashMap<>();
+        for (Map.Entry<String, ConfigurationSection> entry : sections.entrySet())
+            references.put(entry.getKey(), findReferences(entry.getValue(), sections.keySet()));
+
+        Map<String, Set<String>> loopReferences = new HashMap<>();
+        Set<String> visited = new HashSet<>();
+        for (String placeholderId : sections.keySet())
+            this.findLoops(placeholderId, references, new LinkedHashSet<>(), visited, loopReferences);
+
+        for (Map.Entry<String, ConfigurationSection> entry : sections.entrySet()) {
+            Set<String> rejected = loopReferences.getOrDefault(entry.getKey(), Set.of());
+            this.customPlaceholders.put(entry.getKey(),
+                    this.compileCustomPlaceholder(entry.getKey(), entry.getValue(), name -> !rejected.contains(name)));
         }
     }
 
+    /**
+     * @return The custom placeholders the values of a custom placeholder reference
+     */
+    private static Set<String> findReferences(ConfigurationSection placeholderSection, Set<String> placeholderIds) {
+        Set<String> references = new LinkedHashSet<>();
+        Predicate<String> collector = name -> {
+            if (placeholderIds.contains(name))
+                references.add(name);
+            return true;
+        };
+        for (String template : getTemplates(placeholderSection))
+            PlaceholderTemplate.compile(template, collector);
+
+        return references;
+    }
+
+    /**
+     * Walks the references of a custom placeholder depth-first, a reference that leads back to a placeholder
+     * on the current path is reported once and recorded in {@code loopReferences}.
+     */
+    private void findLoops(String placeholderId, Map<String, Set<String>> references, LinkedHashSet<String> path,
+                           Set<String> visited, Map<String, Set<String>> loopReferences) {
+        if (visited.contains(placeholderId)) return;
+
+        path.add(placeholderId);
+        for (String reference : references.getOrDefault(placeholderId, Set.of())) {
+            if (path.contains(reference)) {
+                this.logger.warning(String.format("Custom placeholder loop detected (%s -> %s), the reference will not be replaced",
+                        String.join(" -> ", path), reference));
+                loopReferences.computeIfAbsent(placeholderId, id -> new HashSet<>()).add(reference);
+                continue;
+            }
+
+            this.findLoops(reference, references, path, visited, loopReferences);
+        }
+        path.remove(placeholderId);
+        visited.add(placeholderId);
+    }
+
+    private static List<String> getTemplates(ConfigurationSection placeholderSection) {
+        List<String> templates = new ArrayList<>();
+        for (ConfigurationSection section : getValueSections(placeholderSection)) {
+            String value = getString(section, "value");
+            templates.add(value != null ? value : section.getName());
+        }
+
+        String defaultValue = getString(placeholderSection, "default_value");
+        if (defaultValue != null)
+            templates.add(defaultValue);
+        return templates;
+    }
+
+    private static List<ConfigurationSection> getValueSections(ConfigurationSection placeholderSection) {
+        return placeholderSection.getKeys(false)
+                .stream()
+                .map(placeholderSection::getConfigurationSection)
+                .filter(Objects::nonNull)
+                .filter(section -> !section.getName().equals("default_value"))
+                .toList();
+    }
+
+    /**
+     * @param resolver Rejects the references that would close a loop, they are left unresolved
+     */
+    private CustomPlaceholder compileCustomPlaceholder(String placeholderId, ConfigurationSection placeholderSection,
+                                                       Predicate<String> resolver) {
+        List<CustomPlaceholder.StateBasedValue> values = getValueSections(placeholderSection)
+                .stream()
+                .map(section -> {
+                    String value = getString(section, "value");
+                    Consumer<InvalidConditionException> errorHandler = e -> this.logger.warning(String.format(
+                            "Invalid condition in custom placeholder %s, it will be ignored: %s", placeholderId, e.getMessage()));
+                    return new CustomPlaceholder.StateBasedValue(
+                            section.getName(),
+                            PlaceholderTemplate.compile(value != null ? value : section.getName(), resolver),
+                            parseConditions(getStringList(section, "conditions"), errorHandler),
+                            parseDonationConditions(getStringList(section, "donation_conditions"), errorHandler)
+                    );
+                }).toList();
+
+        String defaultValue = getString(placeholderSection, "default_value");
+        return new CustomPlaceholder(placeholderId,
+                defaultValue != null ? PlaceholderTemplate.compile(defaultValue, resolver) : null, values);
+    }
+
     @Nullable
     private static List<String> getStringList(ConfigurationSection section, String key) {
         return section.getKeys(true).contains(key) ? section.getStringList(key) : null;
     }
 
+    private static List<Condition> parseConditions(@Nullable List<String> conditionStrings, Consumer<InvalidConditionException> errorHandler) {
+        return conditionStrings != null ? Condition.parseAll(conditionStrings, errorHandler) : List.of();
+    }
+
+    private static Map<String, List<Condition>> parseDonationConditions(@Nullable List<String> donationConditionStrings, Consumer<InvalidConditionException> errorHandler) {
+        return donationConditionStrings != null ? Condition.parseDonationConditions(donationConditionStrings, errorHandler) : Map.of();
+    }
+
     @Nullable
     private static String getString(ConfigurationSection section, String key) {
         return section.getKeys(true).contains(key) ? section.getString(key) : null;
     }
 
+    public List<Action> getActions() {
+        return actionsByEvent.values().stream().flatMap(List::stream).toList();
+    }
+
     public List<Action> getActionsForEvent(String eventType) {
         return actionsByEvent.getOrDefault(eventType, List.of());
     }
 
+    /**
+     * @return The actions of the event that may have their conditions met, donation actions are narrowed down
+     * by the amount and currency of the donation
+     */
+    public List<Action> getCandidateActions(EventContext context) {
+        StreamlabsEvent event = context.getEvent();
+        DonationActionIndex donationIndex = donationIndexes.get(event.getId());
+        if (donationIndex == null || !(event instanceof BasicDonationEvent donationEvent))
+            return getActionsForEvent(event.getId());
+
+        return donationIndex.findCandidates(donationEvent.getCurrency(context.getPayload()), donationEvent.calculateAmount(context.getPayload()));
+    }
+
     public Collection<CustomPlaceholder> getCustomPlaceholders() {
-        return customPlaceholders.values();
+        return Collections.unmodifiableCollection(customPlaceholders.values());
+    }
+
+    public PlaceholderRegistry getPlaceholders(StreamlabsEvent event) {
+        PlaceholderRegistry placeholders = placeholdersByEvent.get(event.getId());
+        if (placeholders != null && placeholders.getEvent() == event) return placeholders;
+
+        return PlaceholderRegistry.of(event, this.getCustomPlaceholders());
+    }
+
+    /**
+     * Creates a registry for an event with placeholders that replace the ones defined by the event.
+     */
+    public PlaceholderRegistry createPlaceholders(StreamlabsEvent event, Collection<? extends ActionPlaceholder> eventPlaceholders) {
+        return new PlaceholderRegistry(event, eventPlaceholders, this.getCustomPlaceholders());
     }
 
     public static class Action {
@@ -91,20 +263,27 @@ public class RewardsConfig {
         private final String eventType;
         private final List<Message> messages;
         private final boolean enabled;
+        private final List<Condition> conditions;
+        private final Map<String, List<Condition>> donationConditions;
+        private final List<ActionCommand> commands;
         @Nullable
-        private final List<String> conditionStrings;
+        private final AggregationWindow aggregation;
         @Nullable
-        private final List<String> donationConditionStrings;
-        private final List<String> commands;
+        private final ThrottleSettings throttle;
 
-        public Action(String name, String eventType, boolean enabled, @Nullable List<String> messageStrings, @Nullable List<String> conditionStrings, @Nullable List<String> donationConditionStrings, @Nullable List<String> commands) {
+        public Action(String name, String eventType, boolean enabled, @Nullable List<String> messageStrings, @Nullable List<String> conditionStrings, @Nullable List<String> donationConditionStrings, @Nullable List<String> commands, @Nullable AggregationWindow aggregation, @Nullable ThrottleSettings throttle, Logger logger) {
             this.name = name;
             this.eventType = eventType;
             this.enabled = enabled;
+            this.aggregation = aggregation;
+            this.throttle = throttle;
             this.messages = messageStrings != null ? Message.parseAll(messageStrings) : List.of();
-            this.conditionStrings = conditionStrings;
-            this.donationConditionStrings = donationConditionStrings;
-            this.commands = commands != null ? commands : List.of();
+            Consumer<InvalidConditionException> conditionErrorHandler = e -> logger.warning(String.format(
+                    "Invalid condition in action %s, it will be ignored: %s", name, e.getMessage()));
+            this.conditions = parseConditions(conditionStrings, conditionErrorHandler);
+            this.donationConditions = parseDonationConditions(donationConditionStrings, conditionErrorHandler);
+            this.commands = commands != null ? ActionCommand.parseAll(commands, e -> logger.warning(String.format(
+                    "Invalid repeat expression in action %s, the command will be executed once: %s", name, e.getMessage()))) : List.of();
         }
 
         public String getName() {
@@ -123,20 +302,34 @@ public class RewardsConfig {
             return messages;
         }
 
-        public List<Condition> getConditions(StreamlabsEvent event) {
-            if (this.conditionStrings == null) return new ArrayList<>();
-
-            return Condition.parseAll(this.conditionStrings, event);
+        public List<Condition> getConditions() {
+            return conditions;
         }
 
-        public List<Condition> getDonationConditions(BasicDonationEvent event, JsonObject baseObject) {
-            if (this.donationConditionStrings == null) return new ArrayList<>();
+        public List<Condition> getDonationConditions(String currency) {
+            return donationConditions.getOrDefault(currency, List.of());
+        }
 
-            return Condition.parseDonationConditions(this.donationConditionStrings, event, baseObject);
+        public Set<String> getDonationCurrencies() {
+            return donationConditions.keySet();
         }
 
-        public List<String> getCommands() {
+        public List<ActionCommand> getCommands() {
             return commands;
         }
+
+        /**
+         * @return How events of the same sender are combined before they trigger the action, null if every event triggers it
+         */
+        public @Nullable AggregationWindow getAggregation() {
+            return aggregation;
+        }
+
+        /**
+         * @return The limits on how often the action is executed, null if only the global limits apply
+         */
+        public @Nullable ThrottleSettings getThrottle() {
+            return throttle;
+        }
     }
-}
\ No newline at end of file
+}
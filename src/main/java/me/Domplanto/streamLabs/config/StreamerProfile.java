@@ -0,0 +1,16 @@
+package me.Domplanto.streamLabs.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A streamer with its own Streamlabs connection, its events only affect its own players.
+ *
+ * @param id            The name of the streamer in the streamers section, {@link #DEFAULT_ID} for the one in the streamlabs section
+ * @param rewardsConfig The actions of the streamer, the ones of the default streamer unless it overrides some of them
+ */
+public record StreamerProfile(@NotNull String id, @NotNull String socketToken, @NotNull List<String> affectedPlayers,
+                              @NotNull RewardsConfig rewardsConfig) {
+    public static final String DEFAULT_ID = "default";
+}
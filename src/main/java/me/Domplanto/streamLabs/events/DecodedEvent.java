@@ -0,0 +1,16 @@
+package me.Domplanto.streamLabs.events;
+
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A socket message bound to the event class that handles it.
+ *
+ * @param eventId    The id Streamlabs sent the event with, or null if it has none
+ * @param streamerId The {@link StreamerProfile} whose connection received the event
+ */
+public record DecodedEvent(@NotNull StreamlabsEvent event, @NotNull EventPayload payload, @Nullable String eventId,
+                           @NotNull String streamerId) {
+}
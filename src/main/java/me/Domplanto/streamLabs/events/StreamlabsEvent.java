@@ -1,52 +1,81 @@
 package me.Domplanto.streamLabs.events;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import me.Domplanto.streamLabs.ComponentRegistry;
 import me.Domplanto.streamLabs.config.ActionPlaceholder;
+import me.Domplanto.streamLabs.config.EventContext;
 import me.Domplanto.streamLabs.config.RewardsConfig;
 import me.Domplanto.streamLabs.condition.Condition;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.events.payload.PayloadReader;
+import me.Domplanto.streamLabs.events.payload.UserPayload;
 import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
-import me.Domplanto.streamLabs.exception.UnexpectedJsonFormatException;
-import me.Domplanto.streamLabs.util.ReflectUtil;
+import me.Domplanto.streamLabs.processor.ComponentType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.DoubleFunction;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
+@ComponentType("events")
 public abstract class StreamlabsEvent {
     @NotNull
     private final String apiName;
     @NotNull
     private final String id;
     private final StreamlabsPlatform platform;
-    private final Set<ActionPlaceholder> placeholders;
+    private final Map<String, ActionPlaceholder> placeholders;
 
     public StreamlabsEvent(@NotNull String id, @NotNull String apiName, StreamlabsPlatform platform) {
         this.id = id;
         this.apiName = apiName;
         this.platform = platform;
-        this.placeholders = new HashSet<>();
-        this.addPlaceholder("user", this::getRelatedUser);
+        this.placeholders = new LinkedHashMap<>();
+        this.addPlaceholder("user", EventPayload::user);
     }
 
-    public void addPlaceholder(String name, Function<JsonObject, String> valueFunction) {
-        this.placeholders.removeIf(placeholder -> placeholder.name().equals(name));
-        this.placeholders.add(new ActionPlaceholder(name, ActionPlaceholder.PlaceholderFunction.of(valueFunction)));
+    protected void addPlaceholder(String name, Function<EventPayload, String> valueFunction) {
+        this.placeholders.put(name, new ActionPlaceholder(name, ActionPlaceholder.PlaceholderFunction.of(valueFunction)));
     }
 
-    @NotNull
-    public JsonObject getBaseObject(JsonObject rootObject) throws UnexpectedJsonFormatException {
-        JsonArray messages = rootObject.get("message").getAsJsonArray();
-        if (messages.isEmpty())
-            throw new UnexpectedJsonFormatException();
+    /**
+     * Adds a placeholder that reads a field of the payload type this event produces in {@link #readPayload}.
+     */
+    protected <P extends EventPayload> void addPlaceholder(String name, Class<P> payloadType, Function<P, String> valueFunction) {
+        this.addPlaceholder(name, payload -> valueFunction.apply(payloadType.cast(payload)));
+    }
+
+    protected void addNumericPlaceholder(String name, ToDoubleFunction<EventPayload> numericFunction, DoubleFunction<String> formatter) {
+        this.placeholders.put(name, new ActionPlaceholder(name, ActionPlaceholder.PlaceholderFunction.ofNumber(numericFunction, formatter)));
+    }
 
-        return messages.get(0).getAsJsonObject();
+    protected <P extends EventPayload> void addNumericPlaceholder(String name, Class<P> payloadType, ToDoubleFunction<P> numericFunction, DoubleFunction<String> formatter) {
+        this.addNumericPlaceholder(name, payload -> numericFunction.applyAsDouble(payloadType.cast(payload)), formatter);
     }
 
-    public @NotNull String getRelatedUser(JsonObject object) {
-        return object.get("name").getAsString();
+    /**
+     * Binds the alert object of a socket message ({@code message[0]}) to the payload of this event,
+     * the reader is positioned at the start of the object and has to be left after its end.
+     */
+    public @NotNull EventPayload readPayload(JsonReader reader) throws IOException {
+        String user = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("name")) user = PayloadReader.nextString(reader);
+            else reader.skipValue();
+        }
+        reader.endObject();
+        return new UserPayload(user);
+    }
+
+    /**
+     * @return The user who caused the event, events of an action with an aggregation window are combined by it
+     */
+    public @NotNull String getSender(EventPayload payload) {
+        return payload.user();
     }
 
     public @NotNull String getApiName() {
@@ -61,22 +90,27 @@ public abstract class StreamlabsEvent {
         return platform;
     }
 
-    public Set<ActionPlaceholder> getPlaceholders() {
-        return placeholders;
+    public Collection<ActionPlaceholder> getPlaceholders() {
+        return Collections.unmodifiableCollection(placeholders.values());
+    }
+
+    public @Nullable ActionPlaceholder getPlaceholder(String name) {
+        return placeholders.get(name);
     }
 
-    public boolean checkConditions(RewardsConfig.Action action, JsonObject object) {
-        ArrayList<Condition> conditionList = new ArrayList<>(action.getConditions(this));
-        if (this instanceof BasicDonationEvent donationEvent)
-            conditionList.addAll(action.getDonationConditions(donationEvent, object));
+    public boolean checkConditions(RewardsConfig.Action action, EventContext context) {
+        for (Condition condition : action.getConditions())
+            if (!condition.check(context)) return false;
 
-        for (Condition condition : conditionList)
-            if (!condition.check(this, object)) return false;
+        if (this instanceof BasicDonationEvent donationEvent) {
+            for (Condition condition : action.getDonationConditions(donationEvent.getCurrency(context.getPayload())))
+                if (!condition.check(context)) return false;
+        }
 
         return true;
     }
 
     public static Set<? extends StreamlabsEvent> findEventClasses() {
-        return ReflectUtil.findClasses(StreamlabsEvent.class);
+        return Set.copyOf(ComponentRegistry.events());
     }
 }
@@ -0,0 +1,192 @@
+package me.Domplanto.streamLabs.events;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.exception.UnexpectedJsonFormatException;
+import me.Domplanto.streamLabs.metrics.PipelineMetrics;
+import me.Domplanto.streamLabs.metrics.PipelineStage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.function.Consumer;
+
+/**
+ * Decodes event messages ({@code ["event", {"type": ..., "message": [{...}], "for": ...}]}) with a streaming reader,
+ * no json tree is built. Reading stops as soon as the type turns out to be one no event class handles.
+ * <p>
+ * Streamlabs sends {@code for} after the message, so the alert is bound while reading the message only if a single
+ * platform sends the type. Types that are sent by several platforms, like follows, are bound in a second pass.
+ */
+public class StreamlabsEventDecoder {
+    private static final String DEFAULT_PLATFORM = "streamlabs";
+    private final StreamlabsEventIndex eventIndex;
+    private final String streamerId;
+    @Nullable
+    private PipelineMetrics metrics;
+
+    public StreamlabsEventDecoder(StreamlabsEventIndex eventIndex) {
+        this(eventIndex, StreamerProfile.DEFAULT_ID);
+    }
+
+    /**
+     * @param streamerId The streamer whose connection the decoded events are received on
+     */
+    public StreamlabsEventDecoder(StreamlabsEventIndex eventIndex, String streamerId) {
+        this.eventIndex = eventIndex;
+        this.streamerId = streamerId;
+    }
+
+    /**
+     * Records how long decoding the events took and how much of it was spent looking up their event classes.
+     */
+    public StreamlabsEventDecoder setMetrics(@Nullable PipelineMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    public @Nullable DecodedEvent decode(String message, int offset) throws IOException {
+        return this.decode(message, offset, null);
+    }
+
+    /**
+     * @param offset       The index the json starts at, after the socket.io packet code
+     * @param typeListener Receives the type of every event message, including the ones no event class handles
+     * @return The decoded event, or null if the message is not an event or no event class handles it
+     * @throws UnexpectedJsonFormatException If the event has no alert
+     */
+    public @Nullable DecodedEvent decode(String message, int offset, @Nullable Consumer<String> typeListener) throws IOException {
+        long startTime = System.nanoTime();
+        long lookupNanos = 0;
+        JsonReader reader = openEventObject(message, offset);
+        if (reader == null) return null;
+
+        String type = null, platform = null, eventId = null;
+        StreamlabsEvent boundEvent = null;
+        EventPayload payload = null;
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            JsonToken token = reader.peek();
+            if (name.equals("message") && token == JsonToken.BEGIN_ARRAY && type != null) {
+                long lookupStartTime = System.nanoTime();
+                boundEvent = eventIndex.findUnique(type);
+                lookupNanos += System.nanoTime() - lookupStartTime;
+                if (boundEvent != null)
+                    payload = readFirstAlert(reader, boundEvent);
+                else reader.skipValue();
+            } else if (token != JsonToken.STRING) {
+                reader.skipValue();
+            } else {
+                switch (name) {
+                    case "type" -> {
+                        type = reader.nextString();
+                        if (typeListener != null) typeListener.accept(type);
+                        long lookupStartTime = System.nanoTime();
+                        boolean handled = eventIndex.handles(type);
+                        lookupNanos += System.nanoTime() - lookupStartTime;
+                        if (!handled) return null;
+                    }
+                    case "for" -> platform = reader.nextString();
+                    case "event_id" -> eventId = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+        }
+        if (type == null) return null;
+
+        long lookupStartTime = System.nanoTime();
+        StreamlabsEvent event = eventIndex.find(type, platform != null ? platform : DEFAULT_PLATFORM);
+        lookupNanos += System.nanoTime() - lookupStartTime;
+        if (event == null) return null;
+        if (event != boundEvent || payload == null)
+            payload = this.readPayload(message, offset, event);
+        // Streamlabs identifies events with an event_id on the message or an _id on the alert itself
+        if (eventId == null)
+            eventId = readAlertId(message, offset);
+
+        if (metrics != null) {
+            metrics.recordDuration(PipelineStage.EVENT_LOOKUP, event.getId(), null, lookupNanos);
+            metrics.recordDuration(PipelineStage.JSON_PARSE, event.getId(), null, System.nanoTime() - startTime - lookupNanos);
+        }
+        return new DecodedEvent(event, payload, eventId, streamerId);
+    }
+
+    /**
+     * Binds the first alert of the message to the payload of the event.
+     *
+     * @throws UnexpectedJsonFormatException If the message contains no alert
+     */
+    public @NotNull EventPayload readPayload(String message, int offset, StreamlabsEvent event) throws IOException {
+        JsonReader reader = openEventObject(message, offset);
+        if (reader == null) throw new UnexpectedJsonFormatException();
+
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("message") && reader.peek() == JsonToken.BEGIN_ARRAY)
+                return readFirstAlert(reader, event);
+
+            reader.skipValue();
+        }
+
+        throw new UnexpectedJsonFormatException();
+    }
+
+    /**
+     * Binds the first alert of the message array and skips the rest of the array.
+     */
+    private static EventPayload readFirstAlert(JsonReader reader, StreamlabsEvent event) throws IOException {
+        reader.beginArray();
+        if (!reader.hasNext() || reader.peek() != JsonToken.BEGIN_OBJECT)
+            throw new UnexpectedJsonFormatException();
+
+        EventPayload payload = event.readPayload(reader);
+        while (reader.hasNext())
+            reader.skipValue();
+        reader.endArray();
+        return payload;
+    }
+
+    private static @Nullable String readAlertId(String message, int offset) throws IOException {
+        JsonReader reader = openEventObject(message, offset);
+        if (reader == null) return null;
+
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("message") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+
+            reader.beginArray();
+            if (!reader.hasNext() || reader.peek() != JsonToken.BEGIN_OBJECT) return null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("_id") && reader.peek() == JsonToken.STRING) return reader.nextString();
+                reader.skipValue();
+            }
+            return null;
+        }
+
+        return null;
+    }
+
+    /**
+     * @return A reader positioned inside the event object, or null if the message is not an event
+     */
+    private static @Nullable JsonReader openEventObject(String message, int offset) throws IOException {
+        StringReader stringReader = new StringReader(message);
+        stringReader.skip(offset);
+        JsonReader reader = new JsonReader(stringReader);
+        reader.setLenient(true);
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) return null;
+
+        reader.beginArray();
+        if (!reader.hasNext()) return null;
+        reader.skipValue();
+        if (!reader.hasNext() || reader.peek() != JsonToken.BEGIN_OBJECT) return null;
+
+        reader.beginObject();
+        return reader;
+    }
+}
@@ -0,0 +1,61 @@
+package me.Domplanto.streamLabs.events;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Lookup table for the known event types, built once when the plugin starts.
+ * Finding the handler of a socket message is a constant time map lookup,
+ * no matter how many event classes exist.
+ */
+public class StreamlabsEventIndex {
+    private final Map<String, Map<String, StreamlabsEvent>> eventsByApiName;
+    private final Map<String, StreamlabsEvent> eventsById;
+
+    public StreamlabsEventIndex(@NotNull Collection<? extends StreamlabsEvent> events) {
+        Map<String, Map<String, StreamlabsEvent>> eventsByApiName = new HashMap<>();
+        Map<String, StreamlabsEvent> eventsById = new HashMap<>();
+        for (StreamlabsEvent event : events) {
+            if (event == null) continue;
+
+            eventsByApiName.computeIfAbsent(event.getApiName(), apiName -> new HashMap<>())
+                    .putIfAbsent(event.getPlatform().getId(), event);
+            eventsById.putIfAbsent(event.getId(), event);
+        }
+
+        eventsByApiName.replaceAll((apiName, platforms) -> Map.copyOf(platforms));
+        this.eventsByApiName = Map.copyOf(eventsByApiName);
+        this.eventsById = Map.copyOf(eventsById);
+    }
+
+    public @Nullable StreamlabsEvent find(@NotNull String apiName, @Nullable String platform) {
+        Map<String, StreamlabsEvent> platforms = this.eventsByApiName.get(apiName);
+        if (platforms == null || platform == null) return null;
+
+        return platforms.get(platform);
+    }
+
+    /**
+     * @return The event that handles the api name if only one platform sends it, no matter which platform an event is for
+     */
+    public @Nullable StreamlabsEvent findUnique(@NotNull String apiName) {
+        Map<String, StreamlabsEvent> platforms = this.eventsByApiName.get(apiName);
+        if (platforms == null || platforms.size() != 1) return null;
+
+        return platforms.values().iterator().next();
+    }
+
+    public boolean handles(@NotNull String apiName) {
+        return this.eventsByApiName.containsKey(apiName);
+    }
+
+    public @Nullable StreamlabsEvent getById(@NotNull String id) {
+        return this.eventsById.get(id);
+    }
+
+    public Collection<StreamlabsEvent> getEvents() {
+        return this.eventsById.values();
+    }
+}
@@ -13,6 +13,10 @@ public enum StreamlabsPlatform {
         this.id = id;
     }
 
+    public @Nullable String getId() {
+        return id;
+    }
+
     public boolean compare(@Nullable String platformString) {
         return platformString != null && platformString.equals(this.id);
     }
@@ -0,0 +1,7 @@
+package me.Domplanto.streamLabs.events.payload;
+
+import org.jetbrains.annotations.NotNull;
+
+public record BasicDonationPayload(@NotNull String user, double amount, @NotNull String currency,
+                                   @NotNull String formattedAmount, @NotNull String message) implements DonationPayload {
+}
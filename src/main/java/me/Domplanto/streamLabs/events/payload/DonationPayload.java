@@ -0,0 +1,16 @@
+package me.Domplanto.streamLabs.events.payload;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The payload of events with an amount that donation conditions can compare, like donations, bits or raids.
+ */
+public interface DonationPayload extends EventPayload {
+    double amount();
+
+    @NotNull String currency();
+
+    @NotNull String formattedAmount();
+
+    @NotNull String message();
+}
@@ -0,0 +1,11 @@
+package me.Domplanto.streamLabs.events.payload;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The fields of a received event, read from the socket message once when it is decoded.
+ * Payloads are immutable, fields that are missing from the message have a default value instead.
+ */
+public interface EventPayload {
+    @NotNull String user();
+}
@@ -0,0 +1,52 @@
+package me.Domplanto.streamLabs.events.payload;
+
+import com.google.gson.stream.JsonReader;
+import me.Domplanto.streamLabs.util.NumberUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Lenient readers for single payload fields. Streamlabs isn't consistent about sending numbers as strings
+ * or numbers and sends {@code null} for some missing values, values of an unexpected type are skipped.
+ */
+public final class PayloadReader {
+    private PayloadReader() {
+    }
+
+    /**
+     * @return The value as a string, or an empty string for null, objects and arrays
+     */
+    public static @NotNull String nextString(JsonReader reader) throws IOException {
+        return switch (reader.peek()) {
+            case STRING, NUMBER -> reader.nextString();
+            case BOOLEAN -> String.valueOf(reader.nextBoolean());
+            default -> {
+                reader.skipValue();
+                yield "";
+            }
+        };
+    }
+
+    /**
+     * @return The value as a number, {@link Double#NaN} if it is a string that is not a number
+     * or the fallback for null, objects and arrays
+     */
+    public static double nextDouble(JsonReader reader, double fallback) throws IOException {
+        return switch (reader.peek()) {
+            case STRING, NUMBER -> NumberUtil.parseDouble(reader.nextString());
+            default -> {
+                reader.skipValue();
+                yield fallback;
+            }
+        };
+    }
+
+    /**
+     * @return The value as an integer, or the fallback if it is not a number
+     */
+    public static int nextInt(JsonReader reader, int fallback) throws IOException {
+        double value = nextDouble(reader, Double.NaN);
+        return Double.isNaN(value) ? fallback : (int) value;
+    }
+}
@@ -0,0 +1,25 @@
+package me.Domplanto.streamLabs.events.payload;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * @param tier   The tier of the subscription plan, Prime subscriptions count as tier 1
+ * @param gifter The user who gifted the subscription, empty if it wasn't a gift
+ */
+public record TwitchSubscriptionPayload(@NotNull String user, int tier, @NotNull String message, int months, int streakMonths,
+                                        @NotNull String subType, @NotNull String subPlanName, @NotNull String gifter) implements DonationPayload {
+    @Override
+    public double amount() {
+        return tier;
+    }
+
+    @Override
+    public @NotNull String currency() {
+        return "Tier";
+    }
+
+    @Override
+    public @NotNull String formattedAmount() {
+        return "";
+    }
+}
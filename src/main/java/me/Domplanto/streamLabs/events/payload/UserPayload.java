@@ -0,0 +1,9 @@
+package me.Domplanto.streamLabs.events.payload;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The payload of events that only carry the user who triggered them, like follows.
+ */
+public record UserPayload(@NotNull String user) implements EventPayload {
+}
@@ -0,0 +1,19 @@
+package me.Domplanto.streamLabs.events.payload;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * @param amount The number of gifted memberships
+ */
+public record YoutubeMembershipGiftPayload(@NotNull String user, double amount, int level, @NotNull String levelName,
+                                           @NotNull String message) implements DonationPayload {
+    @Override
+    public @NotNull String currency() {
+        return "Memberships";
+    }
+
+    @Override
+    public @NotNull String formattedAmount() {
+        return "";
+    }
+}
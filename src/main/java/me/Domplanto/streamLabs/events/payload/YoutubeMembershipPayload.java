@@ -0,0 +1,21 @@
+package me.Domplanto.streamLabs.events.payload;
+
+import org.jetbrains.annotations.NotNull;
+
+public record YoutubeMembershipPayload(@NotNull String user, int level, @NotNull String levelName, int months,
+                                       @NotNull String sponsorSince, @NotNull String message) implements DonationPayload {
+    @Override
+    public double amount() {
+        return level;
+    }
+
+    @Override
+    public @NotNull String currency() {
+        return "Tier";
+    }
+
+    @Override
+    public @NotNull String formattedAmount() {
+        return "";
+    }
+}
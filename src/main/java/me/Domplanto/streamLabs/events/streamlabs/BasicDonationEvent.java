@@ -1,37 +1,76 @@
 package me.Domplanto.streamLabs.events.streamlabs;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import me.Domplanto.streamLabs.events.StreamlabsEvent;
 import me.Domplanto.streamLabs.events.StreamlabsPlatform;
+import me.Domplanto.streamLabs.events.payload.BasicDonationPayload;
+import me.Domplanto.streamLabs.events.payload.DonationPayload;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.events.payload.PayloadReader;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
 
 public class BasicDonationEvent extends StreamlabsEvent {
+    private final PayloadFields fields;
+
     @SuppressWarnings("unused")
     public BasicDonationEvent() {
-        super("streamlabs_donation", "donation", StreamlabsPlatform.STREAMLABS);
-        this.addPlaceholders();
+        this("streamlabs_donation", "donation", StreamlabsPlatform.STREAMLABS);
     }
 
     public BasicDonationEvent(String id, String apiName, StreamlabsPlatform platform) {
-        super(id, apiName, platform);
-        this.addPlaceholders();
+        this(id, apiName, platform, PayloadFields.DEFAULT);
     }
 
-    private void addPlaceholders() {
-        this.addPlaceholder("amount", object -> String.valueOf((int) calculateAmount(object)));
-        this.addPlaceholder("amount_double", object -> String.format("%.2f", calculateAmount(object)));
-        this.addPlaceholder("amount_formatted", object -> object.has("formattedAmount") ? object.get("formattedAmount").getAsString() : "");
+    protected BasicDonationEvent(String id, String apiName, StreamlabsPlatform platform, PayloadFields fields) {
+        super(id, apiName, platform);
+        this.fields = fields;
+        this.addNumericPlaceholder("amount", payload -> (int) calculateAmount(payload), value -> String.valueOf((int) value));
+        this.addNumericPlaceholder("amount_double", this::calculateAmount, value -> String.format("%.2f", value));
+        this.addPlaceholder("amount_formatted", DonationPayload.class, DonationPayload::formattedAmount);
         this.addPlaceholder("currency", this::getCurrency);
-        this.addPlaceholder("message", object -> object.has("message") ? object.get("message").getAsString() : "");
+        this.addPlaceholder("message", DonationPayload.class, DonationPayload::message);
     }
 
-    public double calculateAmount(JsonObject object) {
-        if (!object.has("amount")) return -1;
-        return object.get("amount").getAsDouble();
+    @Override
+    public @NotNull DonationPayload readPayload(JsonReader reader) throws IOException {
+        String user = "", currency = fields.currency() != null ? fields.currency() : "Unknown", formattedAmount = "", message = "";
+        double amount = -1;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("name")) user = PayloadReader.nextString(reader);
+            else if (name.equals(fields.amount())) amount = PayloadReader.nextDouble(reader, Double.NaN) / fields.amountScale();
+            else if (name.equals("currency") && fields.currency() == null) currency = PayloadReader.nextString(reader);
+            else if (name.equals(fields.formattedAmount())) formattedAmount = PayloadReader.nextString(reader);
+            else if (name.equals(fields.message())) message = PayloadReader.nextString(reader);
+            else reader.skipValue();
+        }
+        reader.endObject();
+        return new BasicDonationPayload(user, amount, currency, formattedAmount, message);
     }
 
-    public @NotNull String getCurrency(JsonObject object) {
-        if (!object.has("currency")) return "Unknown";
-        return object.get("currency").getAsString();
+    public double calculateAmount(EventPayload payload) {
+        return ((DonationPayload) payload).amount();
+    }
+
+    public @NotNull String getCurrency(EventPayload payload) {
+        return ((DonationPayload) payload).currency();
+    }
+
+    /**
+     * The names of the alert fields the payload is read from.
+     *
+     * @param amountScale The amount field is divided by this, for platforms that send it in a smaller unit
+     * @param currency    A fixed currency for events that don't send one, or null to read the {@code currency} field
+     */
+    public record PayloadFields(String amount, double amountScale, @Nullable String currency, String formattedAmount, String message) {
+        public static final PayloadFields DEFAULT = new PayloadFields("amount", 1, null, "formattedAmount", "message");
+
+        public PayloadFields withAmount(String amount, @Nullable String currency) {
+            return new PayloadFields(amount, amountScale, currency, formattedAmount, message);
+        }
     }
 }
@@ -1,28 +1,61 @@
 package me.Domplanto.streamLabs.events.twitch;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import me.Domplanto.streamLabs.events.StreamlabsPlatform;
+import me.Domplanto.streamLabs.events.payload.EventPayload;
+import me.Domplanto.streamLabs.events.payload.PayloadReader;
+import me.Domplanto.streamLabs.events.payload.TwitchSubscriptionPayload;
 import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public class TwitchSubscriptionEvent extends BasicDonationEvent {
     public TwitchSubscriptionEvent() {
         super("twitch_subscription", "subscription", StreamlabsPlatform.TWITCH);
-        this.addPlaceholder("months", object -> String.valueOf(object.get("months").getAsInt()));
-        this.addPlaceholder("months_streak", object -> String.valueOf(object.get("streak_months").getAsInt()));
-        this.addPlaceholder("sub_type", object -> object.get("sub_type").getAsString());
-        this.addPlaceholder("sub_plan", object -> object.get("sub_plan_name").getAsString());
+        this.addNumericPlaceholder("months", TwitchSubscriptionPayload.class, TwitchSubscriptionPayload::months, value -> String.valueOf((int) value));
+        this.addNumericPlaceholder("months_streak", TwitchSubscriptionPayload.class, TwitchSubscriptionPayload::streakMonths, value -> String.valueOf((int) value));
+        this.addPlaceholder("sub_type", TwitchSubscriptionPayload.class, TwitchSubscriptionPayload::subType);
+        this.addPlaceholder("sub_plan", TwitchSubscriptionPayload.class, TwitchSubscriptionPayload::subPlanName);
+        this.addPlaceholder("gifter", TwitchSubscriptionPayload.class, TwitchSubscriptionPayload::gifter);
     }
 
+    /**
+     * Gifted subscriptions are sent with the name of the recipient, they are combined by the gifter instead.
+     */
     @Override
-    public double calculateAmount(JsonObject object) {
-        char tier = object.get("sub_plan").getAsString().charAt(0);
-        return Integer.parseInt(String.valueOf(tier));
+    public @NotNull String getSender(EventPayload payload) {
+        String gifter = ((TwitchSubscriptionPayload) payload).gifter();
+        return !gifter.isEmpty() ? gifter : payload.user();
     }
 
     @Override
-    public @NotNull String getCurrency(JsonObject object) {
-        return "Tier";
+    public @NotNull TwitchSubscriptionPayload readPayload(JsonReader reader) throws IOException {
+        String user = "", message = "", subType = "", subPlanName = "", gifter = "", gifterDisplayName = "";
+        int tier = 1, months = 0, streakMonths = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> user = PayloadReader.nextString(reader);
+                case "message" -> message = PayloadReader.nextString(reader);
+                case "months" -> months = PayloadReader.nextInt(reader, 0);
+                case "streak_months" -> streakMonths = PayloadReader.nextInt(reader, 0);
+                case "sub_type" -> subType = PayloadReader.nextString(reader);
+                case "sub_plan" -> {
+                    // "1000", "2000" or "3000", Prime subscriptions ("Prime") count as tier 1
+                    String plan = PayloadReader.nextString(reader);
+                    int digit = plan.isEmpty() ? -1 : Character.digit(plan.charAt(0), 10);
+                    tier = digit > 0 ? digit : 1;
+                }
+                case "sub_plan_name" -> subPlanName = PayloadReader.nextString(reader);
+                case "gifter" -> gifter = PayloadReader.nextString(reader);
+                case "gifter_display_name" -> gifterDisplayName = PayloadReader.nextString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new TwitchSubscriptionPayload(user, tier, message, months, streakMonths, subType, subPlanName,
+                !gifterDisplayName.isEmpty() ? gifterDisplayName : gifter);
     }
 }
@@ -1,20 +1,39 @@
 package me.Domplanto.streamLabs.events.youtube;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import me.Domplanto.streamLabs.events.StreamlabsPlatform;
+import me.Domplanto.streamLabs.events.payload.PayloadReader;
+import me.Domplanto.streamLabs.events.payload.YoutubeMembershipGiftPayload;
 import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public class YoutubeMembershipGiftEvent extends BasicDonationEvent {
     public YoutubeMembershipGiftEvent() {
         super("youtube_gift_memberships", "membershipGift", StreamlabsPlatform.YOUTUBE);
-        this.addPlaceholder("tier", object -> String.valueOf(object.get("level").getAsInt()));
-        this.addPlaceholder("tier_name", object -> object.get("levelName").getAsString());
+        this.addNumericPlaceholder("tier", YoutubeMembershipGiftPayload.class, YoutubeMembershipGiftPayload::level, value -> String.valueOf((int) value));
+        this.addPlaceholder("tier_name", YoutubeMembershipGiftPayload.class, YoutubeMembershipGiftPayload::levelName);
     }
 
     @Override
-    public @NotNull String getCurrency(JsonObject object) {
-        return "Memberships";
+    public @NotNull YoutubeMembershipGiftPayload readPayload(JsonReader reader) throws IOException {
+        String user = "", levelName = "", message = "";
+        double amount = -1;
+        int level = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> user = PayloadReader.nextString(reader);
+                case "amount" -> amount = PayloadReader.nextDouble(reader, Double.NaN);
+                case "level" -> level = PayloadReader.nextInt(reader, 0);
+                case "levelName" -> levelName = PayloadReader.nextString(reader);
+                case "message" -> message = PayloadReader.nextString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new YoutubeMembershipGiftPayload(user, amount, level, levelName, message);
     }
 }
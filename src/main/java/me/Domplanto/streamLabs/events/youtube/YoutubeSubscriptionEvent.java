@@ -1,26 +1,40 @@
 package me.Domplanto.streamLabs.events.youtube;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import me.Domplanto.streamLabs.events.StreamlabsPlatform;
+import me.Domplanto.streamLabs.events.payload.PayloadReader;
+import me.Domplanto.streamLabs.events.payload.YoutubeMembershipPayload;
 import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public class YoutubeSubscriptionEvent extends BasicDonationEvent {
     public YoutubeSubscriptionEvent() {
         super("youtube_membership", "subscription", StreamlabsPlatform.YOUTUBE);
-        this.addPlaceholder("tier_name", object -> object.get("levelName").getAsString());
-        this.addPlaceholder("months", object -> String.valueOf(object.get("months").getAsInt()));
-        this.addPlaceholder("first_membership_date", object -> object.get("sponsorSince").getAsString());
-    }
-
-    @Override
-    public double calculateAmount(JsonObject object) {
-        return object.get("level").getAsInt();
+        this.addPlaceholder("tier_name", YoutubeMembershipPayload.class, YoutubeMembershipPayload::levelName);
+        this.addNumericPlaceholder("months", YoutubeMembershipPayload.class, YoutubeMembershipPayload::months, value -> String.valueOf((int) value));
+        this.addPlaceholder("first_membership_date", YoutubeMembershipPayload.class, YoutubeMembershipPayload::sponsorSince);
     }
 
     @Override
-    public @NotNull String getCurrency(JsonObject object) {
-        return "Tier";
+    public @NotNull YoutubeMembershipPayload readPayload(JsonReader reader) throws IOException {
+        String user = "", levelName = "", sponsorSince = "", message = "";
+        int level = 0, months = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> user = PayloadReader.nextString(reader);
+                case "level" -> level = PayloadReader.nextInt(reader, 0);
+                case "levelName" -> levelName = PayloadReader.nextString(reader);
+                case "months" -> months = PayloadReader.nextInt(reader, 0);
+                case "sponsorSince" -> sponsorSince = PayloadReader.nextString(reader);
+                case "message" -> message = PayloadReader.nextString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new YoutubeMembershipPayload(user, level, levelName, months, sponsorSince, message);
     }
 }
@@ -0,0 +1,7 @@
+package me.Domplanto.streamLabs.exception;
+
+public class InvalidConditionException extends RuntimeException {
+    public InvalidConditionException(String condition, int position, String problem) {
+        super(String.format("%s at position %d in \"%s\"", problem, position + 1, condition));
+    }
+}
@@ -0,0 +1,7 @@
+package me.Domplanto.streamLabs.exception;
+
+public class InvalidExpressionException extends RuntimeException {
+    public InvalidExpressionException(String expression, int position, String problem) {
+        super(String.format("%s at position %d in \"%s\"", problem, position + 1, expression));
+    }
+}
@@ -0,0 +1,39 @@
+package me.Domplanto.streamLabs.expression;
+
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.exception.InvalidExpressionException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Predicate;
+
+/**
+ * An arithmetic expression compiled into a tree, placeholders are read as numbers when it is evaluated.
+ * Evaluates to {@link Double#NaN} if a placeholder does not exist or is not a number.
+ */
+@FunctionalInterface
+public interface Expression {
+    double evaluate(EventContext context);
+
+    /**
+     * Supports {@code + - * / % ^}, parentheses, numbers, placeholders written as {@code {name}} or {@code name},
+     * the constants {@code pi} and {@code e} and the functions
+     * {@code abs, ceil, floor, round, sqrt, ln, log, min, max, pow}.
+     */
+    static Expression parse(@NotNull String expression) throws InvalidExpressionException {
+        return parse(expression, name -> true);
+    }
+
+    /**
+     * @param resolvable Decides whether a placeholder may be referenced, the expression is rejected otherwise
+     */
+    static Expression parse(@NotNull String expression, @NotNull Predicate<String> resolvable) throws InvalidExpressionException {
+        return new ExpressionParser(expression, resolvable).parse();
+    }
+
+    static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value))
+            return String.valueOf((long) value);
+
+        return String.valueOf(value);
+    }
+}
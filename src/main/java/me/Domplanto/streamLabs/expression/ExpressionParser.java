@@ -0,0 +1,249 @@
+package me.Domplanto.streamLabs.expression;
+
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.exception.InvalidExpressionException;
+
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * Recursive descent parser for {@link Expression}s, operator precedence from lowest to highest:
+ * {@code + -}, {@code * / %}, unary {@code -}, {@code ^} (right associative).
+ */
+class ExpressionParser {
+    private static final Map<String, DoubleUnaryOperator> UNARY_FUNCTIONS = Map.of(
+            "abs", Math::abs,
+            "ceil", Math::ceil,
+            "floor", Math::floor,
+            "round", value -> (double) Math.round(value),
+            "sqrt", Math::sqrt,
+            "ln", Math::log,
+            "log", Math::log10
+    );
+    private static final Map<String, DoubleBinaryOperator> BINARY_FUNCTIONS = Map.of(
+            "min", Math::min,
+            "max", Math::max,
+            "pow", Math::pow
+    );
+    private static final Map<String, Double> CONSTANTS = Map.of(
+            "pi", Math.PI,
+            "e", Math.E
+    );
+    private final String expression;
+    private final Predicate<String> resolvable;
+    private int position;
+
+    ExpressionParser(String expression, Predicate<String> resolvable) {
+        this.expression = expression;
+        this.resolvable = resolvable;
+    }
+
+    Expression parse() {
+        Expression result = parseSum();
+        skipWhitespace();
+        if (position < expression.length())
+            throw error("Unexpected character '" + expression.charAt(position) + "'");
+
+        return result;
+    }
+
+    private Expression parseSum() {
+        Expression result = parseProduct();
+        while (true) {
+            if (consume('+')) result = new Binary(result, parseProduct(), Operation.ADD);
+            else if (consume('-')) result = new Binary(result, parseProduct(), Operation.SUBTRACT);
+            else return result;
+        }
+    }
+
+    private Expression parseProduct() {
+        Expression result = parseUnary();
+        while (true) {
+            if (consume('*')) result = new Binary(result, parseUnary(), Operation.MULTIPLY);
+            else if (consume('/')) result = new Binary(result, parseUnary(), Operation.DIVIDE);
+            else if (consume('%')) result = new Binary(result, parseUnary(), Operation.MODULO);
+            else return result;
+        }
+    }
+
+    private Expression parseUnary() {
+        if (consume('-')) return new Negate(parseUnary());
+        if (consume('+')) return parseUnary();
+
+        return parsePower();
+    }
+
+    private Expression parsePower() {
+        Expression base = parsePrimary();
+        if (consume('^'))
+            return new Binary(base, parseUnary(), Operation.POWER);
+
+        return base;
+    }
+
+    private Expression parsePrimary() {
+        skipWhitespace();
+        if (position >= expression.length())
+            throw error("Unexpected end of expression");
+
+        char c = expression.charAt(position);
+        if (consume('(')) {
+            Expression result = parseSum();
+            expect(')');
+            return result;
+        }
+        if (c == '{') {
+            int end = expression.indexOf('}', position);
+            if (end == -1 || end == position + 1)
+                throw error("Unclosed placeholder");
+
+            String name = expression.substring(position + 1, end);
+            Expression placeholder = this.createPlaceholder(name);
+            position = end + 1;
+            return placeholder;
+        }
+        if (Character.isDigit(c) || c == '.')
+            return parseNumber();
+        if (Character.isLetter(c) || c == '_')
+            return parseIdentifier();
+
+        throw error("Unexpected character '" + c + "'");
+    }
+
+    private Expression parseNumber() {
+        int start = position;
+        while (position < expression.length() && (Character.isDigit(expression.charAt(position)) || expression.charAt(position) == '.'))
+            position++;
+
+        try {
+            return new Constant(Double.parseDouble(expression.substring(start, position)));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number");
+        }
+    }
+
+    private Expression parseIdentifier() {
+        int start = position;
+        while (position < expression.length() && (Character.isLetterOrDigit(expression.charAt(position)) || expression.charAt(position) == '_'))
+            position++;
+
+        String name = expression.substring(start, position);
+        if (!consume('(')) {
+            Double constant = CONSTANTS.get(name);
+            if (constant != null) return new Constant(constant);
+
+            position = start;
+            Expression placeholder = this.createPlaceholder(name);
+            position += name.length();
+            return placeholder;
+        }
+
+        DoubleUnaryOperator unaryFunction = UNARY_FUNCTIONS.get(name);
+        if (unaryFunction != null) {
+            Expression argument = parseSum();
+            expect(')');
+            return new UnaryFunction(argument, unaryFunction);
+        }
+
+        DoubleBinaryOperator binaryFunction = BINARY_FUNCTIONS.get(name);
+        if (binaryFunction != null) {
+            Expression first = parseSum();
+            expect(',');
+            Expression second = parseSum();
+            expect(')');
+            return new BinaryFunction(first, second, binaryFunction);
+        }
+
+        position = start;
+        throw error("Unknown function \"" + name + "\"");
+    }
+
+    private Expression createPlaceholder(String name) {
+        if (!resolvable.test(name))
+            throw error("Placeholder \"" + name + "\" can not be used here");
+
+        return new PlaceholderValue(name);
+    }
+
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (position < expression.length() && expression.charAt(position) == c) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!consume(c))
+            throw error("Expected '" + c + "'");
+    }
+
+    private void skipWhitespace() {
+        while (position < expression.length() && Character.isWhitespace(expression.charAt(position)))
+            position++;
+    }
+
+    private InvalidExpressionException error(String problem) {
+        return new InvalidExpressionException(expression, position, problem);
+    }
+
+    private enum Operation {
+        ADD, SUBTRACT, MULTIPLY, DIVIDE, MODULO, POWER
+    }
+
+    private record Constant(double value) implements Expression {
+        @Override
+        public double evaluate(EventContext context) {
+            return value;
+        }
+    }
+
+    private record PlaceholderValue(String name) implements Expression {
+        @Override
+        public double evaluate(EventContext context) {
+            return context.getNumericValue(name);
+        }
+    }
+
+    private record Negate(Expression operand) implements Expression {
+        @Override
+        public double evaluate(EventContext context) {
+            return -operand.evaluate(context);
+        }
+    }
+
+    private record Binary(Expression left, Expression right, Operation operation) implements Expression {
+        @Override
+        public double evaluate(EventContext context) {
+            double l = left.evaluate(context);
+            double r = right.evaluate(context);
+            return switch (operation) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case MODULO -> l % r;
+                case POWER -> Math.pow(l, r);
+            };
+        }
+    }
+
+    private record UnaryFunction(Expression argument, DoubleUnaryOperator function) implements Expression {
+        @Override
+        public double evaluate(EventContext context) {
+            return function.applyAsDouble(argument.evaluate(context));
+        }
+    }
+
+    private record BinaryFunction(Expression first, Expression second, DoubleBinaryOperator function) implements Expression {
+        @Override
+        public double evaluate(EventContext context) {
+            return function.applyAsDouble(first.evaluate(context), second.evaluate(context));
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package me.Domplanto.streamLabs.font;
 
+import java.text.Normalizer;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public enum DefaultFontInfo {
     f('f', 4),
@@ -31,14 +34,70 @@ public enum DefaultFontInfo {
     DEFAULT('a', 5);
 
     private final static int CENTER_PX = 154;
+    /**
+     * Width of the glyphs that are rendered from the unifont fallback at full width (CJK, Hangul and fullwidth forms)
+     */
+    private final static int WIDE_LENGTH = 8;
+    private final static int CENTERED_CACHE_SIZE = 64;
+    private final static DefaultFontInfo[] ASCII_INFO = new DefaultFontInfo[128];
+    /**
+     * The width of every char including the pixel of space after it, 0 for chars that aren't rendered on their own
+     */
+    private final static byte[] ADVANCES = new byte[Character.MAX_VALUE + 1];
+    private final static Map<String, String> CENTERED_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > CENTERED_CACHE_SIZE;
+        }
+    };
     private final char character;
     private final int length;
 
+    static {
+        Arrays.fill(ASCII_INFO, DEFAULT);
+        for (DefaultFontInfo info : values())
+            if (info != DEFAULT) ASCII_INFO[info.character] = info;
+
+        for (int c = 0; c <= Character.MAX_VALUE; c++)
+            ADVANCES[c] = (byte) (computeLength((char) c) + 1);
+        for (int c = 0; c < ' '; c++)
+            ADVANCES[c] = 0;
+        // Combining marks, zero width spaces and joiners, variation selectors and the second half of surrogate pairs
+        fillAdvances(0x0300, 0x036F, 0);
+        fillAdvances(0x200B, 0x200F, 0);
+        fillAdvances(0xFE00, 0xFE0F, 0);
+        fillAdvances(0xDC00, 0xDFFF, 0);
+    }
+
     DefaultFontInfo(char character, int length) {
         this.character = character;
         this.length = length;
     }
 
+    private static int computeLength(char c) {
+        if (c < 128) return ASCII_INFO[c].length;
+        if (isWide(c) || Character.isHighSurrogate(c)) return WIDE_LENGTH;
+
+        // Accented latin letters are as wide as the letter they are based on
+        if (c <= 0x024F) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            if (decomposed.charAt(0) < 128 && Character.isLetter(decomposed.charAt(0)))
+                return ASCII_INFO[decomposed.charAt(0)].length;
+        }
+
+        return DEFAULT.length;
+    }
+
+    private static boolean isWide(char c) {
+        return (c >= 0x1100 && c <= 0x115F) || (c >= 0x2E80 && c <= 0xA4CF) || (c >= 0xAC00 && c <= 0xD7A3)
+                || (c >= 0xF900 && c <= 0xFAFF) || (c >= 0xFE30 && c <= 0xFE4F) || (c >= 0xFF00 && c <= 0xFF60)
+                || (c >= 0xFFE0 && c <= 0xFFE6);
+    }
+
+    private static void fillAdvances(int from, int to, int advance) {
+        Arrays.fill(ADVANCES, from, to + 1, (byte) advance);
+    }
+
     public char getCharacter() {
         return this.character;
     }
@@ -53,38 +112,80 @@ public enum DefaultFontInfo {
     }
 
     public static DefaultFontInfo getDefaultFontInfo(char c) {
-        return Arrays.stream(values())
-                .filter(info -> info.getCharacter() == c)
-                .findFirst().orElse(DEFAULT);
+        return c < 128 ? ASCII_INFO[c] : DEFAULT;
     }
 
-    public static String centerMessage(String message) {
-        if (message == null || message.isEmpty()) return message;
+    /**
+     * @return The width of the char and the pixel of space after it, bold glyphs (except for spaces) are one pixel wider
+     */
+    public static int getAdvance(char c, boolean bold) {
+        int advance = ADVANCES[c];
+        return bold && advance > 0 && c != ' ' ? advance + 1 : advance;
+    }
 
-        int messagePxSize = 0;
-        boolean isBold = false;
+    /**
+     * @return The width of the message in pixels, formatting codes aren't counted.
+     * Bold is turned on by {@code §l} and off by colour codes and {@code §r}, other formats don't change it.
+     */
+    public static int getWidth(String message) {
+        int width = 0;
+        boolean bold = false;
         for (int i = 0; i < message.length(); i++) {
             char c = message.charAt(i);
-            if (c == '§') continue;
-            if (i > 0 && message.charAt(i - 1) == '§') {
-                isBold = c == 'l' || c == 'L';
+            if (c == '§') {
+                if (++i >= message.length()) break;
+
+                char code = message.charAt(i);
+                if (code == 'l' || code == 'L')
+                    bold = true;
+                else if (code == 'r' || code == 'R' || Character.digit(code, 16) != -1)
+                    bold = false;
                 continue;
             }
 
-            DefaultFontInfo dFI = getDefaultFontInfo(c);
-            messagePxSize += isBold ? dFI.getBoldLength() : dFI.getLength();
-            messagePxSize++;
+            width += getAdvance(c, bold);
+        }
+
+        return width;
+    }
+
+    /**
+     * Centers the message in the chat, the last centered messages are cached because the same message is usually sent to every affected player.
+     */
+    public static String centerMessage(String message) {
+        if (message == null || message.isEmpty()) return message;
+
+        synchronized (CENTERED_CACHE) {
+            String centered = CENTERED_CACHE.get(message);
+            if (centered != null) return centered;
         }
 
-        int spacePixelAmount = CENTER_PX - (messagePxSize / 2);
-        int spaceLength = SPACE.getLength() + 1;
-        int compensated = 0;
-        StringBuilder sb = new StringBuilder();
-        while(compensated < spacePixelAmount){
-            sb.append(" ");
-            compensated += spaceLength;
+        String centered = padToCenter(message);
+        synchronized (CENTERED_CACHE) {
+            CENTERED_CACHE.put(message, centered);
         }
+        return centered;
+    }
+
+    static int getCenteredCacheSize() {
+        synchronized (CENTERED_CACHE) {
+            return CENTERED_CACHE.size();
+        }
+    }
+
+    /**
+     * Centers the message in the chat without looking it up in the cache.
+     */
+    public static String padToCenter(String message) {
+        if (message == null || message.isEmpty()) return message;
+
+        int spacePixelAmount = CENTER_PX - (getWidth(message) / 2);
+        int spaceLength = ADVANCES[' '];
+        int spaces = spacePixelAmount > 0 ? (spacePixelAmount + spaceLength - 1) / spaceLength : 0;
+        StringBuilder sb = new StringBuilder(spaces + message.length());
+        for (int i = 0; i < spaces; i++)
+            sb.append(' ');
 
-        return sb + message;
+        return sb.append(message).toString();
     }
 }
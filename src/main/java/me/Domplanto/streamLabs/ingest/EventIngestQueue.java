@@ -0,0 +1,190 @@
+package me.Domplanto.streamLabs.ingest;
+
+import me.Domplanto.streamLabs.events.DecodedEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded ring buffer between the socket and the action executor.
+ * Decoded events are handed over by the socket thread and processed on a separate consumer thread,
+ * events with an id that has been seen recently are ignored.
+ */
+public class EventIngestQueue {
+    private final DecodedEvent[] buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final Consumer<DecodedEvent> consumer;
+    private final Logger logger;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Map<String, Boolean> recentEventIds;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong duplicateCount = new AtomicLong();
+    private int head;
+    private int size;
+    private boolean stopped;
+    @Nullable
+    private Thread consumerThread;
+
+    public EventIngestQueue(int capacity, @NotNull OverflowPolicy overflowPolicy, int deduplicationHistory, @NotNull Consumer<DecodedEvent> consumer, Logger logger) {
+        this.buffer = new DecodedEvent[Math.max(1, capacity)];
+        this.overflowPolicy = overflowPolicy;
+        this.consumer = consumer;
+        this.logger = logger;
+        this.recentEventIds = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > deduplicationHistory;
+            }
+        };
+    }
+
+    public void start() {
+        if (this.consumerThread != null) return;
+
+        lock.lock();
+        try {
+            this.stopped = false;
+        } finally {
+            lock.unlock();
+        }
+        this.consumerThread = new Thread(this::processEvents, "Streamlabs event processor");
+        this.consumerThread.setDaemon(true);
+        this.consumerThread.start();
+    }
+
+    /**
+     * Stops the consumer thread, producers waiting for free space return and further events are ignored.
+     */
+    public void stop() {
+        Thread thread = this.consumerThread;
+        if (thread == null) return;
+
+        lock.lock();
+        try {
+            this.stopped = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        this.consumerThread = null;
+        thread.interrupt();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds an event to the queue, depending on the overflow policy this
+     * waits for free space or drops an event if the queue is full.
+     * Events offered after the queue has been stopped are ignored.
+     */
+    public void offer(@NotNull DecodedEvent event) {
+        String eventId = event.eventId();
+        lock.lock();
+        try {
+            if (stopped) return;
+            if (eventId != null && this.recentEventIds.containsKey(eventId)) {
+                duplicateCount.incrementAndGet();
+                return;
+            }
+
+            while (size == buffer.length) {
+                switch (overflowPolicy) {
+                    case BLOCK -> {
+                        notFull.await();
+                        if (stopped) return;
+                    }
+                    case DROP_OLDEST -> {
+                        // The dropped event can be processed if it is delivered again
+                        String droppedId = this.removeFirst().eventId();
+                        if (droppedId != null)
+                            this.recentEventIds.remove(droppedId);
+                        droppedCount.incrementAndGet();
+                    }
+                    case DROP_NEWEST -> {
+                        droppedCount.incrementAndGet();
+                        return;
+                    }
+                }
+            }
+
+            if (eventId != null)
+                this.recentEventIds.put(eventId, Boolean.TRUE);
+            buffer[(head + size) % buffer.length] = event;
+            size++;
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void processEvents() {
+        while (!Thread.currentThread().isInterrupted()) {
+            DecodedEvent event;
+            lock.lock();
+            try {
+                while (size == 0)
+                    notEmpty.await();
+                event = this.removeFirst();
+                notFull.signal();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                consumer.accept(event);
+            } catch (Exception e) {
+                this.logger.log(Level.WARNING, "Failed to process Streamlabs message", e);
+            }
+        }
+    }
+
+    private DecodedEvent removeFirst() {
+        DecodedEvent event = buffer[head];
+        buffer[head] = null;
+        head = (head + 1) % buffer.length;
+        size--;
+        return event;
+    }
+
+    public int getSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+}
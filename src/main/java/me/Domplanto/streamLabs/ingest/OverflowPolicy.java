@@ -0,0 +1,30 @@
+package me.Domplanto.streamLabs.ingest;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.logging.Logger;
+
+public enum OverflowPolicy {
+    /**
+     * Wait until there is space in the queue, this stops reading from the socket in the meantime
+     */
+    BLOCK,
+    /**
+     * Remove the event that has been waiting the longest to make space for the new one
+     */
+    DROP_OLDEST,
+    /**
+     * Discard the new event
+     */
+    DROP_NEWEST;
+
+    public static OverflowPolicy parse(@Nullable String name, OverflowPolicy defaultPolicy, Logger logger) {
+        if (name == null) return defaultPolicy;
+
+        for (OverflowPolicy policy : values())
+            if (policy.name().equalsIgnoreCase(name)) return policy;
+
+        logger.warning(String.format("Unknown overflow policy \"%s\", using %s", name, defaultPolicy.name().toLowerCase()));
+        return defaultPolicy;
+    }
+}
@@ -1,28 +1,29 @@
 package me.Domplanto.streamLabs.message;
 
-import com.google.gson.JsonObject;
-import me.Domplanto.streamLabs.config.ActionPlaceholder;
-import me.Domplanto.streamLabs.config.RewardsConfig;
-import me.Domplanto.streamLabs.events.StreamlabsEvent;
-import org.bukkit.entity.Player;
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.PlaceholderTemplate;
 
 import java.util.List;
 
 public class Message {
-    private final String content;
+    private final PlaceholderTemplate content;
     private final MessageType type;
 
-    private Message(MessageType type, String content) {
+    private Message(MessageType type, PlaceholderTemplate content) {
         this.type = type;
         this.content = content;
     }
 
-    public void send(Player player) {
-        this.type.sendMessage(player, this.content);
+    public void addTo(MessageOutput output, String renderedContent) {
+        this.type.addTo(output, renderedContent);
     }
 
-    public Message replacePlaceholders(StreamlabsEvent event, RewardsConfig config, JsonObject baseObject) {
-        return new Message(this.type, ActionPlaceholder.replacePlaceholders(this.content, event, config, baseObject));
+    public String render(EventContext context) {
+        return this.content.render(context);
+    }
+
+    public MessageType getType() {
+        return type;
     }
 
     public static List<Message> parseAll(List<String> messageStrings) {
@@ -35,7 +36,7 @@ public class Message {
                         messageString = messageString.substring(messageString.indexOf(']') + 1);
                     }
 
-                    return new Message(type, messageString);
+                    return new Message(type, PlaceholderTemplate.compile(messageString));
                 })
                 .toList();
     }
@@ -0,0 +1,82 @@
+package me.Domplanto.streamLabs.message;
+
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the messages of one action send to a player, coalesced into as few packets as possible:
+ * the chat lines are joined into one chat message and the title and subtitle are sent together.
+ * The output is the same for every player, so it is built once and then sent to each of them.
+ */
+public class MessageOutput {
+    private final TitleTimings titleTimings;
+    private final List<String> chatLines = new ArrayList<>();
+    @Nullable
+    private String title;
+    @Nullable
+    private String subtitle;
+    private int uncoalescedPacketCount;
+
+    public MessageOutput(TitleTimings titleTimings) {
+        this.titleTimings = titleTimings;
+    }
+
+    void addChatLine(String line) {
+        this.chatLines.add(line);
+        this.uncoalescedPacketCount++;
+    }
+
+    /**
+     * A later title replaces an earlier one, as it would on the client
+     */
+    void setTitle(String title) {
+        this.title = title;
+        // Sending a title on its own sends the timings and the title
+        this.uncoalescedPacketCount += 2;
+    }
+
+    void setSubtitle(String subtitle) {
+        this.subtitle = subtitle;
+        this.uncoalescedPacketCount += 2;
+    }
+
+    public boolean isEmpty() {
+        return chatLines.isEmpty() && title == null && subtitle == null;
+    }
+
+    /**
+     * @return The number of packets that were sent
+     */
+    public int send(Player player) {
+        if (chatLines.size() == 1) {
+            player.sendMessage(chatLines.get(0));
+        } else if (!chatLines.isEmpty()) {
+            // Every line starts without the formatting of the previous one, like separate messages would
+            player.spigot().sendMessage(TextComponent.fromLegacy(String.join("\n§r", chatLines)));
+        }
+
+        if (title != null || subtitle != null)
+            // The client only shows a subtitle together with a title
+            player.sendTitle(title != null ? title : "", subtitle, titleTimings.fadeIn(), titleTimings.stay(), titleTimings.fadeOut());
+        return getPacketCount();
+    }
+
+    /**
+     * @return The number of packets sent to each player
+     */
+    public int getPacketCount() {
+        int titlePackets = title == null && subtitle == null ? 0 : subtitle != null ? 3 : 2;
+        return (chatLines.isEmpty() ? 0 : 1) + titlePackets;
+    }
+
+    /**
+     * @return The number of packets each player would receive if every message was sent on its own
+     */
+    public int getUncoalescedPacketCount() {
+        return uncoalescedPacketCount;
+    }
+}
@@ -1,26 +1,22 @@
 package me.Domplanto.streamLabs.message;
 
 import me.Domplanto.streamLabs.font.DefaultFontInfo;
-import org.bukkit.entity.Player;
 
 import java.util.function.BiConsumer;
 
 public enum MessageType {
-    MESSAGE(Player::sendMessage),
-    MESSAGE_CENTERED((player, message) -> player.sendMessage(DefaultFontInfo.centerMessage(message))),
-    @SuppressWarnings("deprecation")
-    TITLE((player, message) -> player.sendTitle(message, null)),
-    @SuppressWarnings("deprecation")
-    SUBTITLE((player, message) -> player.sendTitle(null, message));
+    MESSAGE(MessageOutput::addChatLine),
+    MESSAGE_CENTERED((output, message) -> output.addChatLine(DefaultFontInfo.centerMessage(message))),
+    TITLE(MessageOutput::setTitle),
+    SUBTITLE(MessageOutput::setSubtitle);
 
-    private final BiConsumer<Player, String> action;
+    private final BiConsumer<MessageOutput, String> action;
 
-    MessageType(BiConsumer<Player, String> action) {
+    MessageType(BiConsumer<MessageOutput, String> action) {
         this.action = action;
     }
 
-    public void sendMessage(Player player, String message) {
-        if (player != null)
-            this.action.accept(player, message);
+    public void addTo(MessageOutput output, String message) {
+        this.action.accept(output, message);
     }
 }
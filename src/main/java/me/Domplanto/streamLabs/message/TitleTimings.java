@@ -0,0 +1,20 @@
+package me.Domplanto.streamLabs.message;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * How long titles fade in, stay and fade out, in ticks.
+ */
+public record TitleTimings(int fadeIn, int stay, int fadeOut) {
+    public static final TitleTimings DEFAULT = new TitleTimings(10, 70, 20);
+
+    public static TitleTimings of(@Nullable ConfigurationSection section) {
+        if (section == null) return DEFAULT;
+
+        return new TitleTimings(
+                Math.max(0, section.getInt("fade_in", DEFAULT.fadeIn)),
+                Math.max(0, section.getInt("stay", DEFAULT.stay)),
+                Math.max(0, section.getInt("fade_out", DEFAULT.fadeOut)));
+    }
+}
@@ -0,0 +1,145 @@
+package me.Domplanto.streamLabs.metrics;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Latency histograms for every stage between receiving a socket frame and running the commands of an action,
+ * in total and broken down by event id and action name.
+ */
+public class PipelineMetrics implements PipelineMetricsMXBean {
+    private static final String OBJECT_NAME = "me.Domplanto.streamLabs:type=PipelineMetrics";
+    private final StageHistograms total = new StageHistograms();
+    private final Map<String, StageHistograms> byEvent = new ConcurrentHashMap<>();
+    private final Map<String, StageHistograms> byAction = new ConcurrentHashMap<>();
+    @Nullable
+    private ObjectName registeredName;
+
+    /**
+     * @param startNanos The {@link System#nanoTime()} the stage started at
+     */
+    public void record(PipelineStage stage, @Nullable String eventId, @Nullable String actionName, long startNanos) {
+        this.recordDuration(stage, eventId, actionName, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @param nanos How long the stage took, for stages that are made up of several parts
+     */
+    public void recordDuration(PipelineStage stage, @Nullable String eventId, @Nullable String actionName, long nanos) {
+        total.get(stage).record(nanos);
+        if (eventId != null)
+            byEvent.computeIfAbsent(eventId, id -> new StageHistograms()).get(stage).record(nanos);
+        if (actionName != null)
+            byAction.computeIfAbsent(actionName, name -> new StageHistograms()).get(stage).record(nanos);
+    }
+
+    public LatencyHistogram getHistogram(PipelineStage stage) {
+        return total.get(stage);
+    }
+
+    @Nullable
+    public LatencyHistogram getEventHistogram(String eventId, PipelineStage stage) {
+        StageHistograms histograms = byEvent.get(eventId);
+        return histograms != null ? histograms.get(stage) : null;
+    }
+
+    @Nullable
+    public LatencyHistogram getActionHistogram(String actionName, PipelineStage stage) {
+        StageHistograms histograms = byAction.get(actionName);
+        return histograms != null ? histograms.get(stage) : null;
+    }
+
+    public Iterable<String> getEventIds() {
+        return byEvent.keySet();
+    }
+
+    public Iterable<String> getActionNames() {
+        return byAction.keySet();
+    }
+
+    @Override
+    public Map<String, HistogramSnapshot> getStages() {
+        return total.snapshot();
+    }
+
+    @Override
+    public Map<String, Map<String, HistogramSnapshot>> getEvents() {
+        return snapshot(byEvent);
+    }
+
+    @Override
+    public Map<String, Map<String, HistogramSnapshot>> getActions() {
+        return snapshot(byAction);
+    }
+
+    private static Map<String, Map<String, HistogramSnapshot>> snapshot(Map<String, StageHistograms> histograms) {
+        Map<String, Map<String, HistogramSnapshot>> snapshot = new TreeMap<>();
+        histograms.forEach((key, value) -> snapshot.put(key, value.snapshot()));
+        return snapshot;
+    }
+
+    @Override
+    public void reset() {
+        total.reset();
+        byEvent.clear();
+        byAction.clear();
+    }
+
+    public void registerMBean(Logger logger) {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+            server.registerMBean(this, name);
+            this.registeredName = name;
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Failed to register the metrics MBean", e);
+        }
+    }
+
+    public void unregisterMBean() {
+        if (this.registeredName == null) return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.registeredName);
+        } catch (JMException ignore) {
+        }
+        this.registeredName = null;
+    }
+
+    private static class StageHistograms {
+        private final LatencyHistogram[] histograms = new LatencyHistogram[PipelineStage.values().length];
+
+        private StageHistograms() {
+            for (int i = 0; i < histograms.length; i++)
+                histograms[i] = new LatencyHistogram();
+        }
+
+        private LatencyHistogram get(PipelineStage stage) {
+            return histograms[stage.ordinal()];
+        }
+
+        private Map<String, HistogramSnapshot> snapshot() {
+            Map<String, HistogramSnapshot> snapshot = new LinkedHashMap<>();
+            for (PipelineStage stage : PipelineStage.values())
+                snapshot.put(stage.getId(), this.get(stage).snapshot());
+            return snapshot;
+        }
+
+        private void reset() {
+            for (LatencyHistogram histogram : histograms)
+                histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package me.Domplanto.streamLabs.metrics;
+
+import java.util.Map;
+
+public interface PipelineMetricsMXBean {
+    /**
+     * @return The histograms of all events and actions by stage id
+     */
+    Map<String, HistogramSnapshot> getStages();
+
+    Map<String, Map<String, HistogramSnapshot>> getEvents();
+
+    Map<String, Map<String, HistogramSnapshot>> getActions();
+
+    void reset();
+}
@@ -0,0 +1,37 @@
+package me.Domplanto.streamLabs.metrics;
+
+public enum PipelineStage {
+    /**
+     * Handling of an event frame, from receiving it until the decoded event is handed to the event queue,
+     * including {@link #JSON_PARSE} and {@link #EVENT_LOOKUP}
+     */
+    FRAME_RECEIVE("frame_receive"),
+    /**
+     * Decoding an event message and binding its alert to the payload of the event, without the event lookup
+     */
+    JSON_PARSE("json_parse"),
+    /**
+     * Looking up the event classes that handle the type of an event message while it is decoded
+     */
+    EVENT_LOOKUP("event_lookup"),
+    CONDITION_CHECK("condition_check"),
+    PLACEHOLDER_RENDER("placeholder_render"),
+    /**
+     * Time from scheduling a command until it is dispatched on the main thread
+     */
+    COMMAND_DISPATCH("command_dispatch"),
+    /**
+     * Time from scheduling the messages of an event until they are delivered on the main thread
+     */
+    MESSAGE_DELIVERY("message_delivery");
+
+    private final String id;
+
+    PipelineStage(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,95 @@
+package me.Domplanto.streamLabs.player;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The affected players of every streamer, the ones that are online are kept by their UUID
+ * and updated when they join or quit, so actions never have to look up players by name.
+ */
+public class AffectedPlayerRegistry implements Listener {
+    private final Map<String, StreamerPlayers> streamers = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the affected players of all streamers, has to be called on the main thread.
+     *
+     * @param namesByStreamer The configured names by the id of their streamer
+     * @param onlinePlayers   The players that are currently online
+     */
+    public void load(@NotNull Map<String, List<String>> namesByStreamer, @NotNull Collection<? extends Player> onlinePlayers) {
+        this.streamers.keySet().retainAll(namesByStreamer.keySet());
+        namesByStreamer.forEach((streamerId, names) -> this.load(streamerId, names, onlinePlayers));
+    }
+
+    /**
+     * Replaces the affected players of a streamer, has to be called on the main thread.
+     *
+     * @param onlinePlayers The players that are currently online
+     */
+    public void load(@NotNull String streamerId, @NotNull List<String> names, @NotNull Collection<? extends Player> onlinePlayers) {
+        StreamerPlayers players = new StreamerPlayers(names);
+        for (Player player : onlinePlayers)
+            players.addIfAffected(player);
+        this.streamers.put(streamerId, players);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        for (StreamerPlayers players : this.streamers.values())
+            players.addIfAffected(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        for (StreamerPlayers players : this.streamers.values())
+            players.online.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * @return The configured names of the streamer's players, including the ones that are offline
+     */
+    public List<String> getNames(String streamerId) {
+        StreamerPlayers players = streamers.get(streamerId);
+        return players != null ? players.names : List.of();
+    }
+
+    /**
+     * @return The affected players of the streamer that are online, should only be used on the main thread
+     */
+    public Collection<Player> getOnlinePlayers(String streamerId) {
+        StreamerPlayers players = streamers.get(streamerId);
+        return players != null ? Collections.unmodifiableCollection(players.online.values()) : List.of();
+    }
+
+    private static class StreamerPlayers {
+        private final List<String> names;
+        /**
+         * The lower case names, player names are case-insensitive
+         */
+        private final Set<String> keys = new HashSet<>();
+        private final Map<UUID, Player> online = new ConcurrentHashMap<>();
+
+        private StreamerPlayers(List<String> names) {
+            this.names = List.copyOf(names);
+            for (String name : names)
+                this.keys.add(key(name));
+        }
+
+        private void addIfAffected(Player player) {
+            if (this.keys.contains(key(player.getName())))
+                this.online.put(player.getUniqueId(), player);
+        }
+
+        private static String key(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package me.Domplanto.streamLabs.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates {@code me.Domplanto.streamLabs.ComponentRegistry}, which creates the implementations of every
+ * {@link ComponentType} with plain constructor calls. This replaces scanning the classpath when the plugin starts.
+ * <p>
+ * The classes and component types that were seen are written to an index next to the compiled classes. An incremental
+ * compilation only passes the changed sources to the processor, so the classes of the index that still exist are
+ * added to them and the registry stays complete.
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentRegistryProcessor extends AbstractProcessor {
+    private static final String REGISTRY_PACKAGE = "me.Domplanto.streamLabs";
+    private static final String REGISTRY_NAME = "ComponentRegistry";
+    private static final String INDEX_FILE = "META-INF/streamlabs/component-registry.idx";
+    private final Map<String, TypeElement> classes = new LinkedHashMap<>();
+    private final Map<String, ComponentTypeInfo> componentTypes = new LinkedHashMap<>();
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated) return false;
+
+        this.readIndex();
+        for (Element element : roundEnv.getRootElements())
+            if (element instanceof TypeElement type)
+                this.collectClasses(type);
+        for (TypeElement componentType : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(ComponentType.class)))
+            componentTypes.put(componentType.getQualifiedName().toString(), new ComponentTypeInfo(componentType,
+                    componentType.getAnnotation(ComponentType.class).value(), getConstructorArgs(componentType)));
+        if (componentTypes.isEmpty()) return false;
+
+        try {
+            this.generateRegistry();
+            this.writeIndex();
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write the component registry: " + e.getMessage());
+        }
+        generated = true;
+        return false;
+    }
+
+    private void collectClasses(TypeElement type) {
+        if (type.getKind() == ElementKind.CLASS) classes.put(type.getQualifiedName().toString(), type);
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements()))
+            if (nested.getModifiers().contains(Modifier.STATIC))
+                this.collectClasses(nested);
+    }
+
+    private void generateRegistry() throws IOException {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(REGISTRY_PACKAGE).append(";\n\n")
+                .append("import java.util.List;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(REGISTRY_NAME).append(" {\n")
+                .append("    private ").append(REGISTRY_NAME).append("() {\n    }\n");
+
+        for (String name : new TreeSet<>(componentTypes.keySet()))
+            this.appendMethod(source, componentTypes.get(name));
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(REGISTRY_PACKAGE + "." + REGISTRY_NAME,
+                classes.values().toArray(Element[]::new)).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    /**
+     * Adds the classes and component types of the previous compilation that still exist, the ones that are
+     * compiled again are replaced afterwards. Does nothing if there is no index yet.
+     */
+    private void readIndex() {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        try {
+            FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_FILE);
+            try (BufferedReader reader = new BufferedReader(index.openReader(true))) {
+                String line;
+                lines:
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(" ");
+                    if (parts.length < 2) continue;
+
+                    TypeElement type = elements.getTypeElement(parts[1]);
+                    if (type == null) continue;
+                    if (parts[0].equals("class")) {
+                        classes.put(parts[1], type);
+                        continue;
+                    }
+                    if (!parts[0].equals("type") || parts.length < 3) continue;
+
+                    List<TypeMirror> argTypes = new ArrayList<>();
+                    for (int i = 3; i < parts.length; i++) {
+                        TypeElement argType = elements.getTypeElement(parts[i]);
+                        if (argType == null) continue lines;
+                        argTypes.add(types.erasure(argType.asType()));
+                    }
+                    componentTypes.put(parts[1], new ComponentTypeInfo(type, parts[2], argTypes));
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // Nothing has been compiled before
+        }
+    }
+
+    /**
+     * One line per class, {@code class <name>}, and per component type, {@code type <name> <method> <constructor args...>}.
+     */
+    private void writeIndex() throws IOException {
+        Types types = processingEnv.getTypeUtils();
+        try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_FILE,
+                classes.values().toArray(Element[]::new)).openWriter()) {
+            for (String name : new TreeSet<>(componentTypes.keySet())) {
+                ComponentTypeInfo componentType = componentTypes.get(name);
+                writer.write("type " + name + " " + componentType.methodName());
+                for (TypeMirror argType : componentType.argTypes())
+                    writer.write(" " + types.erasure(argType));
+                writer.write("\n");
+            }
+            for (String name : new TreeSet<>(classes.keySet()))
+                writer.write("class " + name + "\n");
+        }
+    }
+
+    private void appendMethod(StringBuilder source, ComponentTypeInfo info) {
+        Types types = processingEnv.getTypeUtils();
+        TypeElement componentType = info.type();
+        List<TypeMirror> argTypes = info.argTypes();
+        List<String> argNames = new ArrayList<>();
+        for (TypeMirror argType : argTypes) {
+            String simpleName = types.asElement(argType).getSimpleName().toString();
+            argNames.add(Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1));
+        }
+
+        String baseName = componentType.getQualifiedName().toString();
+        source.append("\n    public static List<").append(baseName).append("> ").append(info.methodName()).append("(");
+        for (int i = 0; i < argTypes.size(); i++)
+            source.append(i > 0 ? ", " : "").append(types.erasure(argTypes.get(i))).append(" ").append(argNames.get(i));
+        source.append(") {\n        return List.of(");
+
+        String packagePrefix = processingEnv.getElementUtils().getPackageOf(componentType).getQualifiedName() + ".";
+        TypeMirror baseType = types.erasure(componentType.asType());
+        boolean first = true;
+        for (String name : new TreeSet<>(classes.keySet())) {
+            TypeElement candidate = classes.get(name);
+            if (candidate.equals(componentType) || !name.startsWith(packagePrefix)
+                    || candidate.getModifiers().contains(Modifier.ABSTRACT) || !candidate.getModifiers().contains(Modifier.PUBLIC)
+                    || !types.isAssignable(types.erasure(candidate.asType()), baseType))
+                continue;
+            if (!hasConstructor(candidate, argTypes)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, String.format("%s has no public constructor taking %s, it won't be registered",
+                        name, argTypes), candidate);
+                continue;
+            }
+
+            source.append(first ? "\n" : ",\n").append("                new ").append(name).append("(").append(String.join(", ", argNames)).append(")");
+            first = false;
+        }
+        source.append(");\n    }\n");
+    }
+
+    private boolean hasConstructor(TypeElement type, List<TypeMirror> argTypes) {
+        Types types = processingEnv.getTypeUtils();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC) || constructor.getParameters().size() != argTypes.size()) continue;
+
+            boolean matches = true;
+            for (int i = 0; i < argTypes.size(); i++)
+                matches &= types.isSameType(types.erasure(constructor.getParameters().get(i).asType()), types.erasure(argTypes.get(i)));
+            if (matches) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Class values of an annotation can't be read as classes while compiling, they are read from the annotation mirror.
+     */
+    private static List<TypeMirror> getConstructorArgs(TypeElement componentType) {
+        for (AnnotationMirror mirror : componentType.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().toString().equals(ComponentType.class.getName())) continue;
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (!entry.getKey().getSimpleName().contentEquals("constructorArgs")) continue;
+
+                List<TypeMirror> argTypes = new ArrayList<>();
+                for (Object value : (List<?>) entry.getValue().getValue())
+                    argTypes.add((TypeMirror) ((AnnotationValue) value).getValue());
+                return argTypes;
+            }
+        }
+
+        return List.of();
+    }
+
+    /**
+     * @param methodName The {@link ComponentType#value()}, the annotation can't be read from a compiled class
+     */
+    private record ComponentTypeInfo(TypeElement type, String methodName, List<TypeMirror> argTypes) {
+    }
+}
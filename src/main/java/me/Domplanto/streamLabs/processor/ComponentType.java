@@ -0,0 +1,25 @@
+package me.Domplanto.streamLabs.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a base type whose implementations are created by the generated {@code ComponentRegistry}. Every public,
+ * concrete subclass in the package of the base type (or a sub-package) with a public constructor taking
+ * {@link #constructorArgs()} is added, so new implementations don't have to be registered anywhere.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface ComponentType {
+    /**
+     * @return The name of the registry method that creates the implementations
+     */
+    String value();
+
+    /**
+     * @return The parameter types of the constructor, the registry method takes the same parameters
+     */
+    Class<?>[] constructorArgs() default {};
+}
@@ -0,0 +1,190 @@
+package me.Domplanto.streamLabs.socket;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the socket connected, lost connections are retried with a jittered exponential backoff. The attempts are timed
+ * on the shared executor, but run on the connect executor, since replacing an open connection blocks until it is closed.
+ * Retrying stops when the connection is closed on purpose or the token was rejected, until {@link #connect()} is called again.
+ */
+public class ReconnectSupervisor {
+    private final StreamlabsSocketClient socketClient;
+    private final ScheduledExecutorService executor;
+    private final Executor connectExecutor;
+    private final Logger logger;
+    private final boolean autoReconnect;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final AtomicLong totalAttempts = new AtomicLong();
+    /**
+     * Held while connecting, so the attempts of this connection never overlap.
+     */
+    private final Object connectLock = new Object();
+    private boolean active;
+    private boolean open;
+    private boolean connectedBefore;
+    private boolean forceReconnect;
+    /**
+     * Set while an open connection is being replaced, its close is expected and must not trigger a retry.
+     */
+    private boolean replacingConnection;
+    private int failedAttempts;
+    private long nextAttemptTime;
+    @Nullable
+    private ScheduledFuture<?> pendingAttempt;
+
+    /**
+     * @param connectExecutor Runs the connection attempts, it can be shared by several connections
+     */
+    public ReconnectSupervisor(StreamlabsSocketClient socketClient, ScheduledExecutorService executor, Executor connectExecutor,
+                               Logger logger, boolean autoReconnect, long initialDelayMillis, long maxDelayMillis) {
+        this.socketClient = socketClient;
+        this.executor = executor;
+        this.connectExecutor = connectExecutor;
+        this.logger = logger;
+        this.autoReconnect = autoReconnect;
+        this.initialDelay = Math.max(initialDelayMillis, 100);
+        this.maxDelay = Math.max(maxDelayMillis, this.initialDelay);
+    }
+
+    /**
+     * (Re)connects immediately and resets the backoff, an open connection is replaced.
+     */
+    public synchronized void connect() {
+        this.active = true;
+        this.failedAttempts = 0;
+        this.forceReconnect = true;
+        this.schedule(0);
+    }
+
+    /**
+     * Closes the connection without reconnecting.
+     */
+    public synchronized void disconnect() {
+        this.active = false;
+        this.cancelPendingAttempt();
+        this.socketClient.close();
+    }
+
+    public synchronized void stop() {
+        this.active = false;
+        this.cancelPendingAttempt();
+    }
+
+    public synchronized void onConnectionOpen() {
+        this.open = true;
+        this.failedAttempts = 0;
+        this.cancelPendingAttempt();
+    }
+
+    /**
+     * Called whenever the socket is closed, which includes failed connection attempts.
+     *
+     * @return Whether a connection that was open has been lost, false if an attempt failed or the connection was replaced
+     */
+    public synchronized boolean onConnectionLost() {
+        boolean wasOpen = this.open;
+        this.open = false;
+        if (this.replacingConnection) {
+            this.replacingConnection = false;
+            return false;
+        }
+        if (!this.active || !this.autoReconnect || this.pendingAttempt != null) return wasOpen;
+
+        long delay = this.nextDelay();
+        this.failedAttempts++;
+        this.logger.info(String.format("Reconnecting to Streamlabs in %.1f seconds (attempt %d)", delay / 1000d, this.failedAttempts));
+        this.schedule(delay);
+        return wasOpen;
+    }
+
+    public synchronized void onInvalidToken() {
+        this.active = false;
+        this.cancelPendingAttempt();
+        this.logger.warning("Not reconnecting until the socket token has been changed");
+    }
+
+    /**
+     * Exponential backoff capped at the maximum delay, randomized between half and the full delay
+     * so that many servers losing their connection at the same time don't retry in lockstep.
+     */
+    private long nextDelay() {
+        long delay = this.initialDelay << Math.min(this.failedAttempts, 30);
+        if (delay <= 0 || delay > this.maxDelay) delay = this.maxDelay;
+
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void schedule(long delay) {
+        this.cancelPendingAttempt();
+        this.nextAttemptTime = System.currentTimeMillis() + delay;
+        this.pendingAttempt = this.executor.schedule(() -> this.connectExecutor.execute(this::attemptConnection), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelPendingAttempt() {
+        if (this.pendingAttempt != null)
+            this.pendingAttempt.cancel(false);
+        this.pendingAttempt = null;
+    }
+
+    private void attemptConnection() {
+        synchronized (this.connectLock) {
+            this.connectIfNeeded();
+        }
+    }
+
+    private void connectIfNeeded() {
+        boolean firstConnection;
+        synchronized (this) {
+            this.pendingAttempt = null;
+            if (!this.active || (this.socketClient.isOpen() && !this.forceReconnect)) return;
+
+            firstConnection = !this.connectedBefore;
+            this.connectedBefore = true;
+            this.replacingConnection = this.socketClient.isOpen();
+            this.forceReconnect = false;
+        }
+
+        this.totalAttempts.incrementAndGet();
+        try {
+            if (firstConnection)
+                this.socketClient.connect();
+            else
+                this.socketClient.reconnect();
+        } catch (Exception e) {
+            this.logger.log(Level.WARNING, "Failed to connect to Streamlabs", e);
+            synchronized (this) {
+                this.replacingConnection = false;
+            }
+            this.onConnectionLost();
+        }
+    }
+
+    public synchronized boolean isReconnecting() {
+        return this.pendingAttempt != null;
+    }
+
+    /**
+     * @return Milliseconds until the next connection attempt, or -1 if none is scheduled
+     */
+    public synchronized long getMillisUntilNextAttempt() {
+        return this.pendingAttempt != null ? Math.max(this.nextAttemptTime - System.currentTimeMillis(), 0) : -1;
+    }
+
+    public synchronized int getFailedAttempts() {
+        return this.failedAttempts;
+    }
+
+    public long getTotalAttempts() {
+        return this.totalAttempts.get();
+    }
+}
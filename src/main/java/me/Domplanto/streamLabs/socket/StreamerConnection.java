@@ -0,0 +1,21 @@
+package me.Domplanto.streamLabs.socket;
+
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The Streamlabs connection of one streamer. All connections share the socket executor and feed the same event queue.
+ */
+public record StreamerConnection(@NotNull String streamerId, @NotNull StreamlabsSocketClient socketClient,
+                                 @NotNull ReconnectSupervisor reconnectSupervisor) {
+    public boolean isOpen() {
+        return socketClient.isOpen();
+    }
+
+    /**
+     * @return The name shown in chat messages, the default streamer's connection is just called "Streamlabs"
+     */
+    public String getDisplayName() {
+        return streamerId.equals(StreamerProfile.DEFAULT_ID) ? "Streamlabs" : String.format("Streamlabs (%s)", streamerId);
+    }
+}
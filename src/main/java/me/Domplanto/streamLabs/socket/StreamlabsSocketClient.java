@@ -1,48 +1,89 @@
 package me.Domplanto.streamLabs.socket;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
+import me.Domplanto.streamLabs.events.DecodedEvent;
+import me.Domplanto.streamLabs.events.StreamlabsEventDecoder;
+import me.Domplanto.streamLabs.exception.UnexpectedJsonFormatException;
+import me.Domplanto.streamLabs.metrics.PipelineMetrics;
+import me.Domplanto.streamLabs.metrics.PipelineStage;
+import me.Domplanto.streamLabs.socket.replay.FrameRecorder;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.framing.CloseFrame;
 import org.java_websocket.handshake.ServerHandshake;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.net.URI;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * A connection to Streamlabs. Keep-alive messages are sent from the scheduler shared by all connections, which also
+ * closes connections that received nothing for too long, instead of a timer thread and a ping thread per connection.
+ */
 public class StreamlabsSocketClient extends WebSocketClient {
+    public static final String DEFAULT_SOCKET_URL = "wss://sockets.streamlabs.com";
     private static final String KEEP_ALIVE_MESSAGE = "2";
     private static final long KEEP_ALIVE_INTERVAL = 15000;
+    /**
+     * Streamlabs answers every keep-alive message, so nothing being received for three intervals means the connection is lost
+     */
+    private static final long CONNECTION_LOST_TIMEOUT = KEEP_ALIVE_INTERVAL * 3;
+    private static final Set<String> DEBUG_IGNORED_TYPES = Set.of("alertPlaying", "streamlabels", "streamlabels.underlying");
     private final Logger logger;
+    private final ScheduledExecutorService scheduler;
     @Nullable
-    private Timer keepAliveTimer;
+    private ScheduledFuture<?> keepAliveTask;
+    @Nullable
+    private String name;
+    @NotNull
+    private final StreamlabsEventDecoder decoder;
     @NotNull
-    private final Consumer<JsonElement> dataReceivedListener;
+    private final Consumer<DecodedEvent> eventReceivedListener;
     @Nullable
     private Consumer<ServerHandshake> connectionOpenListener;
     @Nullable
     private Consumer<String> connectionCloseListener;
     @Nullable
     private Runnable invalidTokenListener;
-
-    public StreamlabsSocketClient(@NotNull String socketToken, Logger logger, @NotNull Consumer<JsonElement> onDataReceived) {
-        super(createURI(socketToken));
+    @NotNull
+    private BooleanSupplier debugLogging = () -> false;
+    @Nullable
+    private PipelineMetrics metrics;
+    @Nullable
+    private FrameRecorder frameRecorder;
+    private volatile long lastEventTime = -1;
+    private volatile long lastFrameTime;
+
+    /**
+     * @param scheduler Sends the keep-alive messages, it can be shared with other connections
+     */
+    public StreamlabsSocketClient(@NotNull String socketUrl, @NotNull String socketToken, Logger logger,
+                                  @NotNull StreamlabsEventDecoder decoder, @NotNull Consumer<DecodedEvent> onEventReceived,
+                                  @NotNull ScheduledExecutorService scheduler) {
+        super(createURI(socketUrl, socketToken));
+        this.setConnectionLostTimeout(0);
         this.logger = logger;
-        this.dataReceivedListener = onDataReceived;
+        this.scheduler = scheduler;
+        this.decoder = decoder;
+        this.eventReceivedListener = onEventReceived;
     }
 
-    private static URI createURI(String socketToken) {
-        return URI.create(String.format("wss://sockets.streamlabs.com/socket.io/?token=%s&transport=websocket", socketToken));
+    private static URI createURI(String socketUrl, String socketToken) {
+        if (socketUrl.endsWith("/"))
+            socketUrl = socketUrl.substring(0, socketUrl.length() - 1);
+        return URI.create(String.format("%s/socket.io/?token=%s&transport=websocket", socketUrl, socketToken));
     }
 
     private boolean processStatusCode(int statusCode) {
         return switch (statusCode) {
             case 41, 44 -> {
-                this.logger.warning("Disconnecting due to invalid access token");
+                this.logger.warning(String.format("Disconnecting from %s due to invalid access token", this.describe()));
                 if (invalidTokenListener != null)
                     invalidTokenListener.run();
                 this.close();
@@ -53,61 +94,82 @@ public class StreamlabsSocketClient extends WebSocketClient {
         };
     }
 
-    public void startKeepAliveTimer() {
-        if (this.keepAliveTimer != null)
-            this.keepAliveTimer.cancel();
-        this.keepAliveTimer = new Timer("Websocket keep-alive-timer");
-        this.keepAliveTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                sendKeepAliveMessage();
-            }
-        }, KEEP_ALIVE_INTERVAL, KEEP_ALIVE_INTERVAL);
+    public synchronized void startKeepAliveTimer() {
+        this.stopKeepAliveTimer();
+        this.keepAliveTask = this.scheduler.scheduleAtFixedRate(this::sendKeepAliveMessage,
+                KEEP_ALIVE_INTERVAL, KEEP_ALIVE_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopKeepAliveTimer() {
+        if (this.keepAliveTask != null)
+            this.keepAliveTask.cancel(false);
+        this.keepAliveTask = null;
     }
 
     public void sendKeepAliveMessage() {
-        if (this.isOpen()) {
+        if (!this.isOpen()) return;
+        if (System.currentTimeMillis() - this.lastFrameTime > CONNECTION_LOST_TIMEOUT) {
+            this.logger.warning(String.format("Received nothing from %s for %d seconds", this.describe(), CONNECTION_LOST_TIMEOUT / 1000));
+            this.closeConnection(CloseFrame.ABNORMAL_CLOSE, "Connection timed out");
+            return;
+        }
+
+        try {
             this.send(KEEP_ALIVE_MESSAGE);
+        } catch (Exception e) {
+            this.logger.log(Level.WARNING, "Failed to send keep-alive message", e);
         }
     }
 
     @Override
     public void onOpen(ServerHandshake serverHandshake) {
+        this.lastFrameTime = System.currentTimeMillis();
         this.startKeepAliveTimer();
-        this.logger.info("Successfully connected to Streamlabs!");
+        this.logger.info(String.format("Successfully connected to %s!", this.describe()));
         if (connectionOpenListener != null)
             connectionOpenListener.accept(serverHandshake);
     }
 
     @Override
     public void onMessage(String message) {
+        long startTime = System.nanoTime();
+        this.lastFrameTime = System.currentTimeMillis();
+        if (frameRecorder != null)
+            frameRecorder.record(message);
         try {
-            int statusCodeEndIdx = calculateStatusCodeEndIdx(message);
-            int statusCode = Integer.parseInt(message.substring(0, statusCodeEndIdx));
-            if (processStatusCode(statusCode)) {
-                String json = message.substring(statusCodeEndIdx);
-                JsonElement jsonElement = new Gson().fromJson(json, JsonElement.class);
-                dataReceivedListener.accept(jsonElement);
+            int statusCodeEndIdx = 0;
+            int statusCode = 0;
+            while (statusCodeEndIdx < message.length()) {
+                char c = message.charAt(statusCodeEndIdx);
+                if (c < '0' || c > '9') break;
+
+                statusCode = statusCode * 10 + (c - '0');
+                statusCodeEndIdx++;
             }
+
+            if (statusCodeEndIdx == 0)
+                throw new UnexpectedJsonFormatException();
+            if (!processStatusCode(statusCode)) return;
+            this.lastEventTime = System.currentTimeMillis();
+
+            int dataStartIdx = statusCodeEndIdx;
+            DecodedEvent event = decoder.decode(message, dataStartIdx, !debugLogging.getAsBoolean() ? null : type -> {
+                if (!DEBUG_IGNORED_TYPES.contains(type))
+                    this.logger.info(String.format("Streamlabs message: %s", message.substring(dataStartIdx)));
+            });
+            if (event == null) return;
+
+            if (metrics != null) metrics.record(PipelineStage.FRAME_RECEIVE, event.event().getId(), null, startTime);
+            eventReceivedListener.accept(event);
         } catch (Exception e) {
             this.logger.log(Level.WARNING, "Failed to process Streamlabs message", e);
         }
     }
 
-    private int calculateStatusCodeEndIdx(String message) {
-        if (!message.contains("{") && !message.contains("["))
-            return message.contains("\"") ? message.indexOf('"') : message.length();
-        if (message.contains("{") && message.contains("["))
-            return Math.min(message.indexOf('{'), message.indexOf('['));
-
-        return Math.max(message.indexOf('{'), message.indexOf('['));
-    }
-
     @Override
     public void onClose(int code, String reason, boolean remote) {
-        if (this.keepAliveTimer != null)
-            this.keepAliveTimer.cancel();
-        this.logger.warning(String.format("Lost connection to Streamlabs: %s", reason));
+        this.stopKeepAliveTimer();
+        this.logger.warning(String.format("Lost connection to %s: %s", this.describe(), reason));
         if (connectionCloseListener != null)
             connectionCloseListener.accept(reason);
     }
@@ -117,12 +179,30 @@ public class StreamlabsSocketClient extends WebSocketClient {
         this.logger.log(Level.SEVERE, "Unexpected socket error", e);
     }
 
-    public void reconnectAsync() {
-        new Thread(this::reconnect, "Streamlabs socket reconnection thread").start();
+    private String describe() {
+        return name != null ? String.format("Streamlabs (%s)", name) : "Streamlabs";
+    }
+
+    /**
+     * Takes effect on the next (re)connect.
+     */
+    public void updateConnection(@NotNull String socketUrl, @NotNull String socketToken) {
+        this.uri = createURI(socketUrl, socketToken);
     }
 
-    public void updateToken(String socketToken) {
-        this.uri = createURI(socketToken);
+    /**
+     * @return The time the last event message was received at, or -1 if none has been received yet
+     */
+    public long getLastEventTime() {
+        return lastEventTime;
+    }
+
+    /**
+     * @param name Shown in log messages to tell connections apart
+     */
+    public StreamlabsSocketClient setName(@Nullable String name) {
+        this.name = name;
+        return this;
     }
 
     public StreamlabsSocketClient setConnectionOpenListener(@NotNull Consumer<ServerHandshake> connectionOpenListener) {
@@ -135,6 +215,28 @@ public class StreamlabsSocketClient extends WebSocketClient {
         return this;
     }
 
+    /**
+     * Logs every event message (except for the frequent alert and label updates) while the supplier returns true,
+     * including the ones no event class handles.
+     */
+    public StreamlabsSocketClient setDebugLogging(@NotNull BooleanSupplier debugLogging) {
+        this.debugLogging = debugLogging;
+        return this;
+    }
+
+    public StreamlabsSocketClient setMetrics(@Nullable PipelineMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Records every received frame, including the ones that are not processed.
+     */
+    public StreamlabsSocketClient setFrameRecorder(@Nullable FrameRecorder frameRecorder) {
+        this.frameRecorder = frameRecorder;
+        return this;
+    }
+
     public StreamlabsSocketClient setInvalidTokenListener(@Nullable Runnable invalidTokenListener) {
         this.invalidTokenListener = invalidTokenListener;
         return this;
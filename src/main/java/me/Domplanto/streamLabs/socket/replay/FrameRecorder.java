@@ -0,0 +1,106 @@
+package me.Domplanto.streamLabs.socket.replay;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends every raw frame received from the socket to a file, so the traffic can be played back later
+ * with the replay server of the benchmarks module.
+ * <p>
+ * Frames are only queued on the thread that received them, a background thread writes and flushes them
+ * periodically and once more when the recorder is closed.
+ */
+public class FrameRecorder implements Closeable {
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private final Path file;
+    private final Logger logger;
+    private final Queue<RecordedFrame> pendingFrames = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService writerExecutor;
+    private BufferedWriter writer;
+    private volatile boolean closed;
+
+    public FrameRecorder(Path file, Logger logger) throws IOException {
+        this.file = file;
+        this.logger = logger;
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.writerExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Streamlabs frame recorder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writerExecutor.scheduleWithFixedDelay(this::writePending, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void record(String frame) {
+        if (this.closed) return;
+
+        this.pendingFrames.add(new RecordedFrame(System.currentTimeMillis(), frame));
+    }
+
+    private synchronized void writePending() {
+        if (this.writer == null) return;
+
+        try {
+            RecordedFrame frame;
+            while ((frame = this.pendingFrames.poll()) != null) {
+                this.writer.write(frame.toLine());
+                this.writer.newLine();
+            }
+            this.writer.flush();
+        } catch (IOException e) {
+            this.logger.log(Level.WARNING, String.format("Failed to record socket frame to %s, recording stopped", this.file), e);
+            this.closed = true;
+            this.pendingFrames.clear();
+            this.closeWriter();
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the frames that are still queued and closes the file.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.writerExecutor.shutdown();
+        try {
+            if (!this.writerExecutor.awaitTermination(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS))
+                this.writerExecutor.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            this.writePending();
+            this.closeWriter();
+        }
+    }
+
+    private synchronized void closeWriter() {
+        if (this.writer == null) return;
+
+        try {
+            this.writer.close();
+        } catch (IOException e) {
+            this.logger.log(Level.WARNING, "Failed to close the frame recording", e);
+        }
+        this.writer = null;
+    }
+}
@@ -0,0 +1,48 @@
+package me.Domplanto.streamLabs.socket.replay;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A socket frame as stored by the {@link FrameRecorder}, one frame per line: {@code <epoch millis> <frame>}.
+ * Frames never contain line breaks since socket.io only sends single line json.
+ */
+public record RecordedFrame(long timestamp, @NotNull String frame) {
+    public String toLine() {
+        return timestamp + " " + frame;
+    }
+
+    @Nullable
+    public static RecordedFrame parse(String line) {
+        int separator = line.indexOf(' ');
+        if (separator <= 0) return null;
+
+        try {
+            return new RecordedFrame(Long.parseLong(line, 0, separator, 10), line.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static List<RecordedFrame> readAll(Path file) throws IOException {
+        List<RecordedFrame> frames = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                RecordedFrame frame = parse(line);
+                if (frame != null)
+                    frames.add(frame);
+            }
+        }
+
+        return frames;
+    }
+}
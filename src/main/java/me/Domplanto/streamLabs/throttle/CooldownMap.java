@@ -0,0 +1,126 @@
+package me.Domplanto.streamLabs.throttle;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The users whose cooldown of an action is still running. Every cooldown is also put into the slot of a timing wheel
+ * for the second it ends in, and the slots that have passed are cleared whenever the map is used. Expired cooldowns
+ * are removed without scanning the whole map, so it only holds the users that are on cooldown, however many
+ * different users trigger the action.
+ */
+class CooldownMap {
+    private static final long SLOT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SLOTS = 64;
+    private final long cooldownNanos;
+    private final Map<String, Long> expiryTimes = new ConcurrentHashMap<>();
+    private final Queue<String>[] wheel;
+    private final ReentrantLock turnLock = new ReentrantLock();
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    CooldownMap(long cooldownMillis, long now) {
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMillis);
+        this.wheel = new Queue[SLOTS];
+        for (int i = 0; i < SLOTS; i++)
+            this.wheel[i] = new ConcurrentLinkedQueue<>();
+        this.currentTick = tick(now);
+    }
+
+    /**
+     * Starts the cooldown of the user unless it is still running, user names are case-insensitive.
+     *
+     * @param now The current {@link System#nanoTime()}
+     * @return 0 if the cooldown was started, otherwise how many nanoseconds are left of it
+     */
+    long tryStart(String user, long now) {
+        this.turn(now);
+        String key = user.toLowerCase(Locale.ROOT);
+        long expiryTime = now + cooldownNanos;
+        long[] remaining = {0};
+        expiryTimes.compute(key, (k, previousExpiryTime) -> {
+            if (previousExpiryTime != null && previousExpiryTime - now > 0) {
+                remaining[0] = previousExpiryTime - now;
+                return previousExpiryTime;
+            }
+
+            return expiryTime;
+        });
+        if (remaining[0] > 0) return remaining[0];
+
+        wheel[slot(tick(expiryTime))].add(key);
+        return 0;
+    }
+
+    /**
+     * Starts the cooldown of the user at the time a deferred execution will happen, which is once the running
+     * cooldown has ended, but not before the given time.
+     *
+     * @param now           The current {@link System#nanoTime()}
+     * @param earliestStart The earliest time the execution can happen, because of other limits
+     * @return The time the cooldown starts at
+     */
+    long reserve(String user, long now, long earliestStart) {
+        this.turn(now);
+        String key = user.toLowerCase(Locale.ROOT);
+        long[] startTime = {earliestStart};
+        long expiryTime = expiryTimes.compute(key, (k, previousExpiryTime) -> {
+            if (previousExpiryTime != null && previousExpiryTime - earliestStart > 0)
+                startTime[0] = previousExpiryTime;
+            return startTime[0] + cooldownNanos;
+        });
+
+        wheel[slot(tick(expiryTime))].add(key);
+        return startTime[0];
+    }
+
+    int size() {
+        return expiryTimes.size();
+    }
+
+    /**
+     * Clears the slots of the seconds that have passed since the last turn, one thread at a time.
+     */
+    private void turn(long now) {
+        long tick = tick(now);
+        if (tick == currentTick || !turnLock.tryLock()) return;
+
+        try {
+            // After a long pause every slot is cleared once
+            long lastTick = Math.min(tick - 1, currentTick + SLOTS - 1);
+            for (long passedTick = currentTick; passedTick <= lastTick; passedTick++)
+                this.clear(wheel[slot(passedTick)], now);
+            currentTick = tick;
+        } finally {
+            turnLock.unlock();
+        }
+    }
+
+    private void clear(Queue<String> slot, long now) {
+        // Cooldowns that end in a later turn of the wheel stay in the slot, the ones started meanwhile are not looked at
+        for (int i = slot.size(); i > 0; i--) {
+            String key = slot.poll();
+            if (key == null) break;
+
+            Long expiryTime = expiryTimes.get(key);
+            if (expiryTime == null) continue;
+            if (expiryTime - now <= 0)
+                expiryTimes.remove(key, expiryTime);
+            else if (slot == wheel[slot(tick(expiryTime))])
+                slot.add(key);
+        }
+    }
+
+    private static long tick(long time) {
+        return Math.floorDiv(time, SLOT_NANOS);
+    }
+
+    private static int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) SLOTS);
+    }
+}
@@ -0,0 +1,302 @@
+package me.Domplanto.streamLabs.throttle;
+
+import me.Domplanto.streamLabs.config.ConfigSnapshot;
+import me.Domplanto.streamLabs.config.RewardsConfig;
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decides whether an action can be executed now, based on the global rate limit, the rate limit of the action and
+ * the cooldowns of its users. Throttled executions are deferred, collapsed or dropped according to the policy of the
+ * action, or the global one if the action has no limits of its own. A deferred execution reserves its tokens and the
+ * cooldown of its sender right away, leaving the buckets in debt, so executions that come later wait behind it instead
+ * of taking its turn. It is run on the scheduler once its turn has come, or right away when the engine is closed.
+ * <p>
+ * The limits of an action are kept by the streamer and the name of the action, they start over when a reload changes them
+ * and are forgotten when a reload removes the action or its throttle.
+ */
+public class ThrottleEngine {
+    private final ScheduledExecutorService scheduler;
+    private final int maxWaiting;
+    private final int maxWaitingPerSender;
+    private final Logger logger;
+    private final Map<ActionKey, ActionLimits> actionLimits = new ConcurrentHashMap<>();
+    private final AtomicReference<ActionLimits> globalLimits = new AtomicReference<>();
+    private final Set<ActionKey> collapsing = ConcurrentHashMap.newKeySet();
+    /**
+     * Ordered by arrival, so {@link #close()} runs them in the order they would have run in
+     */
+    private final Set<DeferredExecution> deferred = new ConcurrentSkipListSet<>(Comparator.comparingLong(DeferredExecution::getSequence));
+    private final Map<SenderKey, Integer> waitingBySender = new ConcurrentHashMap<>();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final AtomicLong deferredCount = new AtomicLong();
+    private final AtomicLong collapsedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param maxWaiting          How many deferred executions can wait at once, further ones are dropped
+     * @param maxWaitingPerSender How many of them can be triggered by the same user of a streamer
+     */
+    public ThrottleEngine(@NotNull ScheduledExecutorService scheduler, int maxWaiting, int maxWaitingPerSender, Logger logger) {
+        this.scheduler = scheduler;
+        this.maxWaiting = Math.max(0, maxWaiting);
+        this.maxWaitingPerSender = Math.max(0, maxWaitingPerSender);
+        this.logger = logger;
+    }
+
+    /**
+     * @param globalSettings The limits of all actions together, only the rate is used
+     * @param sender         The user whose cooldown is checked
+     * @param execution      Executes the action if it is deferred, on a thread of the scheduler
+     * @return Whether the action can be executed now, otherwise it has been deferred, collapsed or dropped.
+     * Always true once the engine is closed.
+     */
+    public boolean tryAcquire(@Nullable ThrottleSettings globalSettings, @NotNull String streamerId,
+                              @NotNull RewardsConfig.Action action, @NotNull String sender, @NotNull Runnable execution) {
+        if (this.closed) return true;
+
+        ActionLimits global = globalSettings != null ? this.getGlobalLimits(globalSettings) : null;
+        ActionLimits limits = action.getThrottle() != null ? this.getActionLimits(streamerId, action) : null;
+        long waitTime = acquire(global, limits, sender);
+        if (waitTime == 0) return true;
+
+        ThrottlePolicy policy = limits != null ? limits.settings().policy() : Objects.requireNonNull(globalSettings).policy();
+        ActionKey collapseKey = null;
+        switch (policy) {
+            case DROP -> {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            case COLLAPSE -> {
+                collapseKey = new ActionKey(streamerId, action.getName(), sender);
+                if (!collapsing.add(collapseKey)) {
+                    collapsedCount.incrementAndGet();
+                    return false;
+                }
+            }
+        }
+
+        SenderKey senderKey = new SenderKey(streamerId, sender.toLowerCase(Locale.ROOT));
+        if (!this.startWaiting(senderKey)) {
+            if (collapseKey != null)
+                collapsing.remove(collapseKey);
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        DeferredExecution deferredExecution = new DeferredExecution(deferredCount.incrementAndGet(), senderKey, collapseKey, execution);
+        deferred.add(deferredExecution);
+        scheduler.schedule(deferredExecution, reserve(global, limits, sender), TimeUnit.NANOSECONDS);
+        return false;
+    }
+
+    /**
+     * Counts a deferred execution of the sender, unless too many executions or too many of the sender are waiting.
+     */
+    private boolean startWaiting(SenderKey senderKey) {
+        if (waitingCount.incrementAndGet() > maxWaiting) {
+            waitingCount.decrementAndGet();
+            return false;
+        }
+
+        boolean[] started = {false};
+        waitingBySender.compute(senderKey, (key, count) -> {
+            int waiting = count != null ? count : 0;
+            if (waiting >= maxWaitingPerSender) return count;
+
+            started[0] = true;
+            return waiting + 1;
+        });
+        if (!started[0])
+            waitingCount.decrementAndGet();
+        return started[0];
+    }
+
+    private void stopWaiting(SenderKey senderKey) {
+        waitingCount.decrementAndGet();
+        waitingBySender.computeIfPresent(senderKey, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Forgets the limits of the actions that aren't throttled in a newly published snapshot, so removed actions and
+     * streamers don't keep their buckets and cooldowns. Limits that an event still being processed on the previous
+     * snapshot creates again are forgotten on the next reload.
+     */
+    public void retainActions(@NotNull ConfigSnapshot snapshot) {
+        Set<ActionKey> keys = new HashSet<>();
+        for (StreamerProfile streamer : snapshot.streamers().values()) {
+            for (RewardsConfig.Action action : streamer.rewardsConfig().getActions()) {
+                if (action.getThrottle() != null)
+                    keys.add(new ActionKey(streamer.id(), action.getName(), ""));
+            }
+        }
+        actionLimits.keySet().retainAll(keys);
+    }
+
+    /**
+     * Runs every deferred execution right away on the calling thread, regardless of the limits, and stops throttling.
+     * Called before the scheduler is shut down, so waiting executions aren't discarded.
+     */
+    public void close() {
+        this.closed = true;
+        for (DeferredExecution deferredExecution : deferred)
+            deferredExecution.finish();
+    }
+
+    /**
+     * Takes a token from every bucket and starts the cooldown of the sender, or nothing if any of them is exhausted.
+     *
+     * @return 0 if the action can be executed, otherwise how many nanoseconds to wait before trying again
+     */
+    private static long acquire(@Nullable ActionLimits global, @Nullable ActionLimits limits, String sender) {
+        long now = System.nanoTime();
+        long waitTime = limits != null && limits.bucket() != null ? limits.bucket().tryAcquire(now) : 0;
+        if (waitTime > 0) return waitTime;
+
+        waitTime = global != null && global.bucket() != null ? global.bucket().tryAcquire(now) : 0;
+        if (waitTime == 0 && limits != null && limits.cooldowns() != null) {
+            waitTime = limits.cooldowns().tryStart(sender, now);
+            if (waitTime > 0 && global != null && global.bucket() != null)
+                global.bucket().refund();
+        }
+
+        if (waitTime > 0 && limits != null && limits.bucket() != null)
+            limits.bucket().refund();
+        return waitTime;
+    }
+
+    /**
+     * Takes a token from every bucket even if they are exhausted, and starts the cooldown of the sender once the
+     * running one has ended.
+     *
+     * @return How many nanoseconds to wait until the reserved execution can happen
+     */
+    private static long reserve(@Nullable ActionLimits global, @Nullable ActionLimits limits, String sender) {
+        long now = System.nanoTime();
+        long waitTime = limits != null && limits.bucket() != null ? limits.bucket().reserve(now) : 0;
+        if (global != null && global.bucket() != null)
+            waitTime = Math.max(waitTime, global.bucket().reserve(now));
+        if (limits != null && limits.cooldowns() != null)
+            waitTime = limits.cooldowns().reserve(sender, now, now + waitTime) - now;
+        return waitTime;
+    }
+
+    private ActionLimits getGlobalLimits(ThrottleSettings settings) {
+        ActionLimits limits = globalLimits.get();
+        if (limits != null && limits.settings().equals(settings)) return limits;
+
+        // Cooldowns are only kept per action
+        ActionLimits newLimits = new ActionLimits(settings,
+                settings.rate() > 0 ? new TokenBucket(settings.rate(), settings.burst(), System.nanoTime()) : null, null);
+        return globalLimits.compareAndSet(limits, newLimits) ? newLimits : globalLimits.get();
+    }
+
+    private ActionLimits getActionLimits(String streamerId, RewardsConfig.Action action) {
+        ThrottleSettings settings = Objects.requireNonNull(action.getThrottle());
+        return actionLimits.compute(new ActionKey(streamerId, action.getName(), ""), (key, limits) ->
+                limits != null && limits.settings().equals(settings) ? limits : ActionLimits.of(settings));
+    }
+
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    /**
+     * @return How many users are on cooldown for any action
+     */
+    public int getCooldownCount() {
+        int count = 0;
+        for (ActionLimits limits : actionLimits.values())
+            if (limits.cooldowns() != null) count += limits.cooldowns().size();
+        return count;
+    }
+
+    public long getDeferredCount() {
+        return deferredCount.get();
+    }
+
+    /**
+     * @return How many executions were merged into one of the same sender that was already waiting
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private record ActionKey(String streamerId, String actionName, String sender) {
+    }
+
+    private record SenderKey(String streamerId, String sender) {
+    }
+
+    private record ActionLimits(ThrottleSettings settings, @Nullable TokenBucket bucket, @Nullable CooldownMap cooldowns) {
+        private static ActionLimits of(ThrottleSettings settings) {
+            long now = System.nanoTime();
+            return new ActionLimits(settings,
+                    settings.rate() > 0 ? new TokenBucket(settings.rate(), settings.burst(), now) : null,
+                    settings.userCooldownMillis() > 0 ? new CooldownMap(settings.userCooldownMillis(), now) : null);
+        }
+    }
+
+    private class DeferredExecution implements Runnable {
+        private final long sequence;
+        private final SenderKey senderKey;
+        @Nullable
+        private final ActionKey collapseKey;
+        private final Runnable execution;
+
+        private DeferredExecution(long sequence, SenderKey senderKey, @Nullable ActionKey collapseKey, Runnable execution) {
+            this.sequence = sequence;
+            this.senderKey = senderKey;
+            this.collapseKey = collapseKey;
+            this.execution = execution;
+        }
+
+        private long getSequence() {
+            return sequence;
+        }
+
+        @Override
+        public void run() {
+            // The tokens have been reserved when the execution was deferred
+            this.finish();
+        }
+
+        /**
+         * Executes the action unless it already has been, by the scheduler or by {@link #close()}.
+         */
+        private void finish() {
+            if (!deferred.remove(this)) return;
+
+            stopWaiting(senderKey);
+            if (collapseKey != null)
+                collapsing.remove(collapseKey);
+            try {
+                execution.run();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Failed to execute a deferred action", e);
+            }
+        }
+    }
+}
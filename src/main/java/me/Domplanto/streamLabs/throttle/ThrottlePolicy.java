@@ -0,0 +1,33 @@
+package me.Domplanto.streamLabs.throttle;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.logging.Logger;
+
+/**
+ * What happens to an action execution that is throttled.
+ */
+public enum ThrottlePolicy {
+    /**
+     * Execute it as soon as the limits allow it
+     */
+    DEFER,
+    /**
+     * Like {@link #DEFER}, but while an execution of the same sender is waiting, further ones are merged into it
+     */
+    COLLAPSE,
+    /**
+     * Discard it
+     */
+    DROP;
+
+    public static ThrottlePolicy parse(@Nullable String name, ThrottlePolicy defaultPolicy, Logger logger) {
+        if (name == null) return defaultPolicy;
+
+        for (ThrottlePolicy policy : values())
+            if (policy.name().equalsIgnoreCase(name)) return policy;
+
+        logger.warning(String.format("Unknown throttle policy \"%s\", using %s", name, defaultPolicy.name().toLowerCase()));
+        return defaultPolicy;
+    }
+}
@@ -0,0 +1,45 @@
+package me.Domplanto.streamLabs.throttle;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.logging.Logger;
+
+/**
+ * Limits on how often an action (or all actions together) can be executed.
+ *
+ * @param rate               How many executions are allowed per second on average, 0 for no limit
+ * @param burst              How many executions are allowed at once after a quiet period
+ * @param userCooldownMillis How long a user has to wait before triggering the action again, 0 for no cooldown
+ */
+public record ThrottleSettings(double rate, int burst, long userCooldownMillis, @NotNull ThrottlePolicy policy) {
+    /**
+     * @return The settings of a throttle section, or null if it doesn't limit anything
+     */
+    public static @Nullable ThrottleSettings of(@Nullable ConfigurationSection section, Logger logger) {
+        if (section == null) return null;
+
+        long userCooldownMillis = Math.max(0, (long) (section.getDouble("user_cooldown_seconds", 0) * 1000));
+        return of(section, userCooldownMillis, logger);
+    }
+
+    /**
+     * @return The settings of the global throttling section, which has no cooldowns, or null if it doesn't limit anything
+     */
+    public static @Nullable ThrottleSettings ofGlobal(@Nullable ConfigurationSection section, Logger logger) {
+        if (section == null) return null;
+
+        if (section.getKeys(false).contains("user_cooldown_seconds"))
+            logger.warning("User cooldowns can only be set on the throttle of an action, the one in the throttling section will be ignored");
+        return of(section, 0, logger);
+    }
+
+    private static @Nullable ThrottleSettings of(ConfigurationSection section, long userCooldownMillis, Logger logger) {
+        double rate = Math.max(0, section.getDouble("rate", 0));
+        if (rate == 0 && userCooldownMillis == 0) return null;
+
+        return new ThrottleSettings(rate, Math.max(1, section.getInt("burst", (int) Math.ceil(rate))), userCooldownMillis,
+                ThrottlePolicy.parse(section.getString("policy"), ThrottlePolicy.DEFER, logger));
+    }
+}
@@ -0,0 +1,59 @@
+package me.Domplanto.streamLabs.throttle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refills {@code rate} tokens per second up to {@code burst}, every execution takes one. Deferred executions reserve
+ * their token in advance, which puts the bucket into debt, so later executions have to wait until it is paid off.
+ */
+class TokenBucket {
+    private final double tokensPerNano;
+    private final int burst;
+    private double tokens;
+    private long lastRefillTime;
+
+    TokenBucket(double rate, int burst, long now) {
+        this.tokensPerNano = rate / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillTime = now;
+    }
+
+    /**
+     * @param now The current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise how many nanoseconds it takes until one is available
+     */
+    synchronized long tryAcquire(long now) {
+        this.refill(now);
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    /**
+     * Takes a token even if none is available.
+     *
+     * @param now The current {@link System#nanoTime()}
+     * @return 0 if a token was available, otherwise how many nanoseconds it takes until the reserved one is
+     */
+    synchronized long reserve(long now) {
+        this.refill(now);
+        tokens--;
+        return tokens >= 0 ? 0 : Math.max(1, (long) Math.ceil(-tokens / tokensPerNano));
+    }
+
+    /**
+     * Gives back a token that was taken for an execution that turned out to be throttled by another limit.
+     */
+    synchronized void refund() {
+        tokens = Math.min(burst, tokens + 1);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefillTime) * tokensPerNano);
+        lastRefillTime = now;
+    }
+}
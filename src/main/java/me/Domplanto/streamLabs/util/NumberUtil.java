@@ -0,0 +1,65 @@
+package me.Domplanto.streamLabs.util;
+
+import org.jetbrains.annotations.NotNull;
+
+public class NumberUtil {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+
+    /**
+     * Parses a number like {@link Double#parseDouble(String)}, but returns {@link Double#NaN} instead of throwing
+     * if the string is not a number. Plain decimal numbers with up to 15 significant digits are parsed without
+     * allocating, strings that can't be a number are rejected without creating an exception.
+     */
+    public static double parseDouble(@NotNull String string) {
+        int start = 0, end = string.length();
+        while (start < end && string.charAt(start) <= ' ') start++;
+        while (end > start && string.charAt(end - 1) <= ' ') end--;
+        if (start == end) return Double.NaN;
+
+        int index = start;
+        char first = string.charAt(index);
+        boolean negative = first == '-';
+        if (negative || first == '+') index++;
+
+        long mantissa = 0;
+        int digits = 0, significantDigits = 0, fractionDigits = 0;
+        boolean fraction = false;
+        for (; index < end; index++) {
+            char c = string.charAt(index);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') break;
+
+            digits++;
+            if (fraction) fractionDigits++;
+            if (mantissa == 0 && c == '0') continue;
+            if (++significantDigits <= MAX_FAST_PATH_DIGITS)
+                mantissa = mantissa * 10 + (c - '0');
+        }
+
+        if (index == end) {
+            if (digits == 0) return Double.NaN;
+            // Both the mantissa and the power of ten are exact, so the division is correctly rounded
+            if (significantDigits <= MAX_FAST_PATH_DIGITS && fractionDigits < POWERS_OF_TEN.length) {
+                double value = mantissa / POWERS_OF_TEN[fractionDigits];
+                return negative ? -value : value;
+            }
+        } else {
+            char c = string.charAt(index);
+            boolean exponentOrSuffix = digits > 0 && "eEdDfF".indexOf(c) != -1;
+            if (!exponentOrSuffix && !(digits == 0 && c == 'I')) return Double.NaN;
+        }
+
+        try {
+            return Double.parseDouble(string);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package me.Domplanto.streamLabs.action;
+
+import me.Domplanto.streamLabs.config.AggregationWindow;
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.PlaceholderRegistry;
+import me.Domplanto.streamLabs.config.PlaceholderTemplate;
+import me.Domplanto.streamLabs.config.RewardsConfig;
+import me.Domplanto.streamLabs.config.StreamerProfile;
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.payload.BasicDonationPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import me.Domplanto.streamLabs.util.ManualScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventAggregatorTest {
+    private static final Logger LOGGER = Logger.getLogger("EventAggregatorTest");
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final EventAggregator aggregator = new EventAggregator(scheduler, LOGGER);
+    private final StreamlabsEvent event = new BasicDonationEvent();
+    private final PlaceholderRegistry placeholders = PlaceholderRegistry.of(event, List.of());
+    private final StreamerProfile streamer = new StreamerProfile(StreamerProfile.DEFAULT_ID, "", List.of(), null);
+    private final RewardsConfig.Action action = createAction("donation_bomb");
+    private final List<EventAggregator.Aggregate> closed = new ArrayList<>();
+
+    private static RewardsConfig.Action createAction(String name) {
+        return new RewardsConfig.Action(name, "streamlabs_donation", true, null, null, null, null,
+                new AggregationWindow(1000, 1), null, LOGGER);
+    }
+
+    private void add(RewardsConfig.Action action, String user, double amount) {
+        EventContext context = new EventContext(placeholders, new BasicDonationPayload(user, amount, "EUR", "", ""));
+        aggregator.add(streamer, action, context, closed::add);
+    }
+
+    private String render(EventAggregator.Aggregate aggregate, String template) {
+        EventContext context = new EventContext(new PlaceholderRegistry(event, aggregate.createPlaceholders().values(), List.of()),
+                aggregate.getPayload());
+        return PlaceholderTemplate.compile(template).render(context);
+    }
+
+    @Test
+    void eventsOfOneSenderAreMerged() {
+        add(action, "alice", 5);
+        add(action, "alice", 2.5);
+        add(action, "alice", 9.5);
+        assertEquals(1, aggregator.getOpenWindowCount());
+        assertEquals(2, aggregator.getCombinedCount());
+
+        scheduler.advance(999, TimeUnit.MILLISECONDS);
+        assertTrue(closed.isEmpty());
+        scheduler.advance(1, TimeUnit.MILLISECONDS);
+        assertEquals(1, closed.size());
+        assertEquals(0, aggregator.getOpenWindowCount());
+
+        EventAggregator.Aggregate aggregate = closed.get(0);
+        assertEquals(3, aggregate.getCount());
+        assertEquals(17.0, aggregate.getSumAmount());
+        assertEquals("alice 3 17", render(aggregate, "{user} {count} {sum_amount}"));
+    }
+
+    @Test
+    void windowOpensAgainAfterClosing() {
+        add(action, "alice", 1);
+        scheduler.advance(1, TimeUnit.SECONDS);
+        add(action, "alice", 2);
+        scheduler.advance(1, TimeUnit.SECONDS);
+
+        assertEquals(2, closed.size());
+        assertEquals(1, closed.get(1).getCount());
+        assertEquals("2", render(closed.get(1), "{sum_amount}"));
+    }
+
+    @Test
+    void sendersAndActionsHaveSeparateWindows() {
+        RewardsConfig.Action otherAction = createAction("other");
+        add(action, "alice", 1);
+        add(action, "bob", 2);
+        add(otherAction, "alice", 3);
+        add(action, "alice", 4);
+        assertEquals(3, aggregator.getOpenWindowCount());
+        assertEquals(1, aggregator.getCombinedCount());
+
+        scheduler.advance(1, TimeUnit.SECONDS);
+        assertEquals(3, closed.size());
+        for (EventAggregator.Aggregate aggregate : closed) {
+            String user = aggregate.getPayload().user();
+            if (aggregate.getAction() == otherAction) assertEquals(3.0, aggregate.getSumAmount());
+            else if (user.equals("bob")) assertEquals(2.0, aggregate.getSumAmount());
+            else assertEquals(5.0, aggregate.getSumAmount());
+        }
+    }
+
+    @Test
+    void invalidAmountsAreLeftOutOfTheSum() {
+        add(action, "alice", Double.NaN);
+        add(action, "alice", -1);
+        add(action, "alice", 4);
+        add(action, "alice", Double.POSITIVE_INFINITY);
+        scheduler.advance(1, TimeUnit.SECONDS);
+
+        assertEquals(4, closed.get(0).getCount());
+        assertEquals(4.0, closed.get(0).getSumAmount());
+        assertEquals("4 4", render(closed.get(0), "{count} {sum_amount}"));
+    }
+
+    @Test
+    void closeFlushesOpenWindowsOnce() {
+        add(action, "alice", 1);
+        add(action, "alice", 1);
+        add(action, "bob", 1);
+        aggregator.close();
+        assertEquals(2, closed.size());
+        assertEquals(0, aggregator.getOpenWindowCount());
+
+        // The windows were closed already, the scheduled closes find nothing to do
+        scheduler.runAll();
+        assertEquals(2, closed.size());
+    }
+
+    @Test
+    void eventsAddedAfterClosePassStraightThrough() {
+        aggregator.close();
+        add(action, "alice", 3);
+        add(action, "alice", 4);
+
+        assertEquals(2, closed.size());
+        assertEquals(0, aggregator.getOpenWindowCount());
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(1, closed.get(1).getCount());
+        assertEquals(4.0, closed.get(1).getSumAmount());
+    }
+
+    @Test
+    void failingCallbackDoesNotBreakOtherWindows() {
+        LOGGER.setLevel(Level.OFF);
+        EventContext context = new EventContext(placeholders, new BasicDonationPayload("alice", 1, "EUR", "", ""));
+        aggregator.add(streamer, action, context, aggregate -> {
+            throw new IllegalStateException("Callback failed");
+        });
+        add(action, "bob", 1);
+
+        scheduler.advance(1, TimeUnit.SECONDS);
+        assertEquals(1, closed.size());
+        assertEquals(0, aggregator.getOpenWindowCount());
+    }
+}
@@ -0,0 +1,150 @@
+package me.Domplanto.streamLabs.condition;
+
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.PlaceholderRegistry;
+import me.Domplanto.streamLabs.events.payload.BasicDonationPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import me.Domplanto.streamLabs.exception.InvalidConditionException;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionParserTest {
+    private static final PlaceholderRegistry PLACEHOLDERS = PlaceholderRegistry.of(new BasicDonationEvent(), List.of());
+
+    private static EventContext donation(String user, double amount, String message) {
+        return new EventContext(PLACEHOLDERS, new BasicDonationPayload(user, amount, "EUR", amount + "€", message));
+    }
+
+    private static boolean check(String condition, EventContext context) {
+        return Condition.parse(condition).check(context);
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        EventContext context = donation("alice", 5, "");
+        assertTrue(check("{amount}>=5 || {amount}>100 && {user}=bob", context));
+        assertFalse(check("{amount}>100 && {user}=alice || {amount}>100", context));
+        assertTrue(check("{user}=bob || {user}=carol || {user}=alice", context));
+        assertFalse(check("{user}=alice && {amount}=5 && {message}=x", context));
+    }
+
+    @Test
+    void notOnlyAppliesToTheNextOperand() {
+        EventContext context = donation("alice", 5, "");
+        assertTrue(check("!{user}=bob && {amount}=5", context));
+        assertTrue(check("!{user}=alice || {amount}=5", context));
+        assertFalse(check("!!{user}=bob", context));
+    }
+
+    @Test
+    void parenthesesGroupConditions() {
+        EventContext context = donation("alice", 5, "");
+        assertFalse(check("({amount}>=5 || {amount}>100) && {user}=bob", context));
+        assertFalse(check("!({user}=alice || {user}=bob)", context));
+        assertTrue(check("(({user}=alice))", context));
+        assertTrue(check("!({user}=bob) && ({amount}<10 || {message}=x)", context));
+    }
+
+    @Test
+    void unquotedTextExtendsToTheNextConnective() {
+        EventContext context = donation("alice", 5, "cats are cool");
+        assertTrue(check("{message}=cats are cool", context));
+        assertTrue(check("{message}=cats are cool && {user}=alice", context));
+        assertTrue(check("({message}=cats are cool)", context));
+        assertTrue(check("{message}.>are co", context));
+        // Outside of a group a closing parenthesis is part of the text
+        assertTrue(check("{message}=(cool)", donation("alice", 5, "(cool)")));
+    }
+
+    @Test
+    void quotedTextCanContainConnectives() {
+        EventContext context = donation("alice", 5, "rock && roll");
+        assertTrue(check("{message}=\"rock && roll\"", context));
+        assertTrue(check("{message}='rock && roll' && {user}=alice", context));
+        assertTrue(check("{message}=\"rock \\\" roll\"", donation("alice", 5, "rock \" roll")));
+        assertThrows(InvalidConditionException.class, () -> Condition.parse("{message}=rock && roll"));
+    }
+
+    @Test
+    void quotedValuesAreComparedAsText() {
+        EventContext context = donation("alice", 5, "");
+        assertTrue(check("{amount_double}=5", context));
+        assertFalse(check("{amount_double}=\"5\"", context));
+        assertTrue(check("{amount_double}=\"5.00\"", context));
+        assertTrue(check("!{message}=\"\"", donation("alice", 5, "hi")));
+    }
+
+    @Test
+    void longestOperatorIsMatchedFirst() {
+        EventContext context = donation("alice", 5, "");
+        assertTrue(check("{amount}>=5", context));
+        assertFalse(check("{amount}>5", context));
+        assertTrue(check("{amount}<=5", context));
+        assertFalse(check("{amount}<5", context));
+        assertTrue(check("{amount} >= 5", context));
+    }
+
+    @Test
+    void containsOperatorsIgnoreCase() {
+        EventContext context = donation("alice", 5, "Cats are cool");
+        assertTrue(check("{message}.>COOL", context));
+        assertFalse(check("{message}.>dogs", context));
+        assertTrue(check("cool<.{message}", context));
+        assertFalse(check("{message}<.cool", context));
+    }
+
+    @Test
+    void malformedConditionsAreRejected() {
+        for (String condition : List.of("", "   ", "{amount}", ">5", "({amount}>5", "{message}=\"unclosed",
+                "{amount}>5 &&", "|| {amount}>5", "!", "()", "{amount}>5 || || {user}=a"))
+            assertThrows(InvalidConditionException.class, () -> Condition.parse(condition), condition);
+    }
+
+    @Test
+    void donationConditionsAreGroupedByCurrency() {
+        var conditions = Condition.parseDonationConditions(List.of("EUR>10", "EUR<50", "USD>=10.54"), e -> {
+            throw e;
+        });
+        assertEquals(2, conditions.get("EUR").size());
+        assertEquals(1, conditions.get("USD").size());
+        assertThrows(InvalidConditionException.class, () -> Condition.parseDonationConditions(List.of(">10"), e -> {
+            throw e;
+        }));
+    }
+
+    @Test
+    void shippedConfigConditionsParse() throws Exception {
+        YamlConfiguration config;
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(getClass().getResourceAsStream("/config.yml")), StandardCharsets.UTF_8)) {
+            config = YamlConfiguration.loadConfiguration(reader);
+        }
+
+        List<String> conditions = new ArrayList<>();
+        List<String> donationConditions = new ArrayList<>();
+        for (String path : config.getKeys(true)) {
+            if (path.endsWith(".donation_conditions")) donationConditions.addAll(config.getStringList(path));
+            else if (path.endsWith(".conditions")) conditions.addAll(config.getStringList(path));
+        }
+        assertFalse(conditions.isEmpty());
+        assertFalse(donationConditions.isEmpty());
+
+        for (String condition : conditions)
+            assertDoesNotThrow(() -> Condition.parse(condition), condition);
+        Condition.parseDonationConditions(donationConditions, e -> fail(e.getMessage()));
+
+        ConfigurationSection example = Objects.requireNonNull(config.getConfigurationSection("actions.example_reward"));
+        EventContext context = donation("codingcat24", 20, "cats are cool");
+        for (Condition condition : Condition.parseAll(example.getStringList("conditions"), e -> fail(e.getMessage())))
+            assertTrue(condition.check(context));
+    }
+}
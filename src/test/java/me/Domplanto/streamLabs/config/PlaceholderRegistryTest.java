@@ -0,0 +1,55 @@
+package me.Domplanto.streamLabs.config;
+
+import me.Domplanto.streamLabs.condition.Condition;
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.payload.BasicDonationPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import me.Domplanto.streamLabs.message.Message;
+import me.Domplanto.streamLabs.message.MessageOutput;
+import me.Domplanto.streamLabs.message.TitleTimings;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlaceholderRegistryTest {
+    private static final int RENDER_COUNT = 1_000_000;
+
+    /**
+     * Rendering used to add the custom placeholders to the shared event instance every time, so the placeholder
+     * set of a long-running server kept growing.
+     */
+    @Test
+    void renderingDoesNotGrowTheRegistry() {
+        StreamlabsEvent event = new BasicDonationEvent();
+        CustomPlaceholder tier = new CustomPlaceholder("tier", PlaceholderTemplate.compile("small"), List.of(
+                new CustomPlaceholder.StateBasedValue("big", PlaceholderTemplate.compile("big {amount}"),
+                        Condition.parseAll(List.of("{amount}>=50"), e -> {
+                            throw e;
+                        }), Map.of())));
+        PlaceholderRegistry registry = PlaceholderRegistry.of(event, List.of(tier));
+        List<Message> messages = Message.parseAll(List.of(
+                "[message]{user} donated {amount_formatted} ({tier})",
+                "[message_centered]§l{user} §r{message}",
+                "[title]{tier}",
+                "[subtitle]{currency} {amount_double}"));
+        int eventPlaceholderCount = event.getPlaceholders().size();
+        int registrySize = registry.size();
+        Set<String> names = Set.copyOf(registry.getNames());
+
+        for (int i = 0; i < RENDER_COUNT; i++) {
+            EventContext context = new EventContext(registry, new BasicDonationPayload("user" + i % 1000, i % 100,
+                    "EUR", (i % 100) + "€", "message " + i % 10));
+            MessageOutput output = new MessageOutput(TitleTimings.DEFAULT);
+            for (Message message : messages)
+                message.addTo(output, message.render(context));
+        }
+
+        assertEquals(eventPlaceholderCount, event.getPlaceholders().size());
+        assertEquals(registrySize, registry.size());
+        assertEquals(names, registry.getNames());
+    }
+}
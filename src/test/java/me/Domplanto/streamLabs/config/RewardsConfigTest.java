@@ -0,0 +1,105 @@
+package me.Domplanto.streamLabs.config;
+
+import me.Domplanto.streamLabs.events.StreamlabsEvent;
+import me.Domplanto.streamLabs.events.payload.BasicDonationPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RewardsConfigTest {
+    private final StreamlabsEvent event = new BasicDonationEvent();
+    private final List<String> warnings = new ArrayList<>();
+    private final Logger logger = createLogger(warnings);
+
+    private static Logger createLogger(List<String> warnings) {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel() == Level.WARNING)
+                    warnings.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return logger;
+    }
+
+    private RewardsConfig load(String yaml) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(yaml);
+        return new RewardsConfig(config, List.of(event), logger);
+    }
+
+    private String render(RewardsConfig config, String template) {
+        EventContext context = new EventContext(config.getPlaceholders(event),
+                new BasicDonationPayload("codingcat24", 5, "EUR", "5€", "cats are cool"));
+        return PlaceholderTemplate.compile(template).render(context);
+    }
+
+    @Test
+    void customPlaceholderLoopIsReportedOnceAndLeftUnresolved() throws InvalidConfigurationException {
+        RewardsConfig config = load("""
+                custom_placeholders:
+                  first:
+                    default_value: 'first {second}'
+                  second:
+                    default_value: 'second {first} {first}'
+                  third:
+                    default_value: '{second} third'
+                """);
+
+        assertEquals(1, warnings.size(), warnings::toString);
+        assertTrue(warnings.get(0).contains("first -> second -> first"), warnings.get(0));
+        assertEquals("first second {first} {first}", render(config, "{first}"));
+        assertEquals("second {first} {first} third", render(config, "{third}"));
+    }
+
+    @Test
+    void selfReferenceIsLeftUnresolved() throws InvalidConfigurationException {
+        RewardsConfig config = load("""
+                custom_placeholders:
+                  self:
+                    default_value: '{self}!'
+                """);
+
+        assertEquals(1, warnings.size(), warnings::toString);
+        assertEquals("{self}!", render(config, "{self}"));
+    }
+
+    @Test
+    void sharedReferencesAreNoLoop() throws InvalidConfigurationException {
+        RewardsConfig config = load("""
+                custom_placeholders:
+                  top:
+                    default_value: '{left} {right}'
+                  left:
+                    default_value: 'L{bottom}'
+                  right:
+                    default_value: 'R{bottom}'
+                  bottom:
+                    default_value: '{user} {amount}'
+                """);
+
+        assertTrue(warnings.isEmpty(), warnings::toString);
+        assertEquals("Lcodingcat24 5 Rcodingcat24 5", render(config, "{top}"));
+    }
+}
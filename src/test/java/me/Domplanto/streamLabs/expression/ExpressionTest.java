@@ -0,0 +1,94 @@
+package me.Domplanto.streamLabs.expression;
+
+import me.Domplanto.streamLabs.config.EventContext;
+import me.Domplanto.streamLabs.config.PlaceholderRegistry;
+import me.Domplanto.streamLabs.events.payload.BasicDonationPayload;
+import me.Domplanto.streamLabs.events.streamlabs.BasicDonationEvent;
+import me.Domplanto.streamLabs.exception.InvalidExpressionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionTest {
+    private static final EventContext CONTEXT = new EventContext(PlaceholderRegistry.of(new BasicDonationEvent(), List.of()),
+            new BasicDonationPayload("codingcat24", 12.5, "EUR", "12.50€", "cats are cool"));
+
+    private static double evaluate(String expression) {
+        return Expression.parse(expression).evaluate(CONTEXT);
+    }
+
+    @Test
+    void operatorPrecedence() {
+        assertEquals(14, evaluate("2 + 3 * 4"));
+        assertEquals(20, evaluate("(2 + 3) * 4"));
+        assertEquals(1, evaluate("7 % 3 * 1"));
+        assertEquals(3, evaluate("10 - 4 - 3"));
+        assertEquals(2, evaluate("16 / 4 / 2"));
+        assertEquals(512, evaluate("2 ^ 3 ^ 2"));
+        assertEquals(18, evaluate("2 * 3 ^ 2"));
+    }
+
+    @Test
+    void unaryMinus() {
+        assertEquals(-5, evaluate("-5"));
+        assertEquals(5, evaluate("--5"));
+        assertEquals(-1, evaluate("2 * -3 + 5"));
+        assertEquals(-4, evaluate("-2 ^ 2"));
+        assertEquals(0.25, evaluate("2 ^ -2"));
+        assertEquals(1, evaluate("+1"));
+    }
+
+    @Test
+    void divisionByZero() {
+        assertEquals(Double.POSITIVE_INFINITY, evaluate("1 / 0"));
+        assertEquals(Double.NEGATIVE_INFINITY, evaluate("-1 / 0"));
+        assertTrue(Double.isNaN(evaluate("0 / 0")));
+        assertTrue(Double.isNaN(evaluate("5 % 0")));
+    }
+
+    @Test
+    void functionsAndConstants() {
+        assertEquals(3, evaluate("max(1, min(3, 4))"));
+        assertEquals(8, evaluate("pow(2, 3)"));
+        assertEquals(3, evaluate("round(2.5)"));
+        assertEquals(2, evaluate("log(100)"));
+        assertEquals(Math.PI, evaluate("pi"));
+        assertEquals(Math.E, evaluate("e"));
+    }
+
+    @Test
+    void placeholdersAreReadAsNumbers() {
+        assertEquals(1.25, evaluate("{amount_double} / 10"));
+        assertEquals(1.25, evaluate("amount_double / 10"));
+        assertEquals(13, evaluate("ceil({amount_double})"));
+        assertEquals(12, evaluate("{amount}"));
+        assertTrue(Double.isNaN(evaluate("{user} * 2")));
+        assertTrue(Double.isNaN(evaluate("{does_not_exist} + 1")));
+    }
+
+    @Test
+    void unresolvablePlaceholdersAreRejected() {
+        Set<String> allowed = Set.of("amount");
+        assertDoesNotThrow(() -> Expression.parse("{amount} * 2", allowed::contains));
+        assertThrows(InvalidExpressionException.class, () -> Expression.parse("{amount_double} * 2", allowed::contains));
+        assertThrows(InvalidExpressionException.class, () -> Expression.parse("amount_double * 2", allowed::contains));
+    }
+
+    @Test
+    void invalidExpressionsAreRejected() {
+        for (String expression : List.of("", "1 +", "(1 + 2", "1 + 2)", "1 2", "2 * * 3", "1..2", "{}", "{amount",
+                "unknown(1)", "max(1)", "1 $ 2"))
+            assertThrows(InvalidExpressionException.class, () -> Expression.parse(expression), expression);
+    }
+
+    @Test
+    void formatDropsTrailingZeros() {
+        assertEquals("4", Expression.format(4.0));
+        assertEquals("2.5", Expression.format(2.5));
+        assertEquals("-3", Expression.format(-3.0));
+        assertEquals("Infinity", Expression.format(Double.POSITIVE_INFINITY));
+    }
+}
@@ -0,0 +1,23 @@
+package me.Domplanto.streamLabs.font;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultFontInfoTest {
+    @Test
+    void centeredMessageCacheIsBounded() {
+        for (int i = 0; i < 1_000_000; i++)
+            DefaultFontInfo.centerMessage("§6Message number §l" + i);
+
+        assertTrue(DefaultFontInfo.getCenteredCacheSize() <= 64);
+    }
+
+    @Test
+    void cachedMessageIsCenteredLikeUncachedOne() {
+        String message = "§l§6Someone §r§9donated 5€!";
+        assertEquals(DefaultFontInfo.padToCenter(message), DefaultFontInfo.centerMessage(message));
+        assertEquals(DefaultFontInfo.padToCenter(message), DefaultFontInfo.centerMessage(message));
+    }
+}
@@ -0,0 +1,72 @@
+package me.Domplanto.streamLabs.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CooldownMapTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void cooldownBlocksTheSameUserOnly() {
+        CooldownMap cooldowns = new CooldownMap(1500, 0);
+        assertEquals(0, cooldowns.tryStart("alice", 0));
+        assertEquals(3 * SECOND / 2, cooldowns.tryStart("alice", 0));
+        assertEquals(SECOND / 2, cooldowns.tryStart("ALICE", SECOND));
+        assertEquals(0, cooldowns.tryStart("bob", SECOND));
+        assertEquals(0, cooldowns.tryStart("alice", 3 * SECOND / 2));
+    }
+
+    @Test
+    void expiredCooldownsAreRemoved() {
+        CooldownMap cooldowns = new CooldownMap(1500, 0);
+        for (int i = 0; i < 1000; i++)
+            cooldowns.tryStart("user" + i, i * SECOND / 1000);
+        assertEquals(1000, cooldowns.size());
+
+        cooldowns.tryStart("late", 3 * SECOND);
+        assertEquals(1, cooldowns.size());
+    }
+
+    @Test
+    void everythingIsRemovedAfterPauseLongerThanTheWheel() {
+        CooldownMap cooldowns = new CooldownMap(10_000, 0);
+        for (int i = 0; i < 100; i++)
+            cooldowns.tryStart("user" + i, i * SECOND / 10);
+
+        cooldowns.tryStart("late", 200 * SECOND);
+        assertEquals(1, cooldowns.size());
+        assertEquals(0, cooldowns.tryStart("user5", 200 * SECOND));
+    }
+
+    @Test
+    void cooldownLongerThanTheWheelIsKept() {
+        CooldownMap cooldowns = new CooldownMap(100_000, 0);
+        cooldowns.tryStart("alice", 0);
+
+        // The slot of the cooldown comes around after 64 seconds, before it ends
+        cooldowns.tryStart("bob", 70 * SECOND);
+        assertEquals(2, cooldowns.size());
+        assertEquals(30 * SECOND, cooldowns.tryStart("alice", 70 * SECOND));
+
+        cooldowns.tryStart("carol", 101 * SECOND);
+        assertEquals(2, cooldowns.size());
+        assertEquals(0, cooldowns.tryStart("alice", 101 * SECOND));
+    }
+
+    @Test
+    void reservationsQueueUpBehindTheRunningCooldown() {
+        CooldownMap cooldowns = new CooldownMap(1000, 0);
+        assertEquals(0, cooldowns.reserve("alice", 0, 0));
+        assertEquals(SECOND, cooldowns.reserve("alice", 0, 0));
+        assertEquals(2 * SECOND, cooldowns.reserve("Alice", 0, 0));
+        // Another limit delays the execution past the end of the cooldowns
+        assertEquals(5 * SECOND, cooldowns.reserve("alice", 0, 5 * SECOND));
+        assertEquals(6 * SECOND, cooldowns.tryStart("alice", 0));
+
+        assertEquals(0, cooldowns.tryStart("alice", 6 * SECOND));
+        assertEquals(1, cooldowns.size());
+    }
+}
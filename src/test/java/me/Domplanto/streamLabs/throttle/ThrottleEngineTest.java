@@ -0,0 +1,209 @@
+package me.Domplanto.streamLabs.throttle;
+
+import me.Domplanto.streamLabs.config.ConfigSnapshot;
+import me.Domplanto.streamLabs.config.RewardsConfig;
+import me.Domplanto.streamLabs.util.ManualScheduler;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThrottleEngineTest {
+    private static final Logger LOGGER = Logger.getLogger("ThrottleEngineTest");
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final List<String> executed = new ArrayList<>();
+
+    private static RewardsConfig.Action action(String name, ThrottleSettings throttle) {
+        return new RewardsConfig.Action(name, "streamlabs_donation", true, null, null, null, null, null, throttle, LOGGER);
+    }
+
+    /**
+     * A rate of one execution per second, the test finishes long before the buckets refill on their own.
+     */
+    private static ThrottleSettings perSecond(ThrottlePolicy policy) {
+        return new ThrottleSettings(1, 1, 0, policy);
+    }
+
+    private static ConfigSnapshot snapshot(String yaml) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(yaml);
+        return ConfigSnapshot.of(config, List.of(), LOGGER);
+    }
+
+    private boolean trigger(ThrottleEngine engine, RewardsConfig.Action action, String sender, String execution) {
+        return this.trigger(engine, null, action, sender, execution);
+    }
+
+    private boolean trigger(ThrottleEngine engine, ThrottleSettings global, RewardsConfig.Action action, String sender, String execution) {
+        boolean allowed = engine.tryAcquire(global, "default", action, sender, () -> executed.add(execution));
+        if (allowed)
+            executed.add(execution);
+        return allowed;
+    }
+
+    @Test
+    void deferredExecutionsRunInArrivalOrder() {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 100, 10, LOGGER);
+        RewardsConfig.Action action = action("follow", perSecond(ThrottlePolicy.DEFER));
+        assertTrue(trigger(engine, action, "user0", "0"));
+        for (int i = 1; i < 5; i++)
+            assertFalse(trigger(engine, action, "user" + i, String.valueOf(i)));
+        assertEquals(4, engine.getWaitingCount());
+
+        // The tokens are reserved, so one execution runs per second
+        assertEquals(0, scheduler.advance(500, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.advance(600, TimeUnit.MILLISECONDS));
+        // An event that arrives while the others wait doesn't take their turn
+        assertFalse(trigger(engine, action, "live", "live"));
+        assertEquals(1, scheduler.advance(1, TimeUnit.SECONDS));
+        scheduler.runAll();
+
+        assertEquals(List.of("0", "1", "2", "3", "4", "live"), executed);
+        assertEquals(0, engine.getWaitingCount());
+        assertEquals(5, engine.getDeferredCount());
+    }
+
+    @Test
+    void collapseMergesExecutionsOfTheSameSender() {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 100, 10, LOGGER);
+        RewardsConfig.Action action = action("follow", perSecond(ThrottlePolicy.COLLAPSE));
+        assertTrue(trigger(engine, action, "alice", "alice 1"));
+        assertFalse(trigger(engine, action, "alice", "alice 2"));
+        assertFalse(trigger(engine, action, "alice", "alice 3"));
+        assertFalse(trigger(engine, action, "bob", "bob 1"));
+        assertEquals(1, engine.getCollapsedCount());
+        assertEquals(2, engine.getWaitingCount());
+
+        scheduler.runAll();
+        assertEquals(List.of("alice 1", "alice 2", "bob 1"), executed);
+
+        // Once the waiting execution has run, the next one is deferred again
+        assertFalse(trigger(engine, action, "alice", "alice 4"));
+        assertEquals(1, engine.getWaitingCount());
+        assertEquals(1, engine.getCollapsedCount());
+    }
+
+    @Test
+    void dropDiscardsThrottledExecutions() {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 100, 10, LOGGER);
+        RewardsConfig.Action action = action("follow", perSecond(ThrottlePolicy.DROP));
+        assertTrue(trigger(engine, action, "alice", "1"));
+        assertFalse(trigger(engine, action, "bob", "2"));
+        assertEquals(1, engine.getDroppedCount());
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(List.of("1"), executed);
+    }
+
+    @Test
+    void perSenderCapDropsFurtherExecutions() {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 100, 2, LOGGER);
+        RewardsConfig.Action action = action("follow", perSecond(ThrottlePolicy.DEFER));
+        assertTrue(trigger(engine, action, "alice", "alice 1"));
+        assertFalse(trigger(engine, action, "alice", "alice 2"));
+        assertFalse(trigger(engine, action, "Alice", "alice 3"));
+        assertFalse(trigger(engine, action, "ALICE", "alice 4"));
+        assertFalse(trigger(engine, action, "bob", "bob 1"));
+        assertEquals(1, engine.getDroppedCount());
+        assertEquals(3, engine.getWaitingCount());
+
+        scheduler.runAll();
+        assertEquals(List.of("alice 1", "alice 2", "alice 3", "bob 1"), executed);
+        assertFalse(trigger(engine, action, "alice", "alice 5"));
+        assertEquals(1, engine.getDroppedCount());
+    }
+
+    @Test
+    void waitingCapDropsFurtherExecutions() {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 2, 10, LOGGER);
+        RewardsConfig.Action action = action("follow", perSecond(ThrottlePolicy.DEFER));
+        for (int i = 0; i < 5; i++)
+            trigger(engine, action, "user" + i, String.valueOf(i));
+
+        assertEquals(2, engine.getWaitingCount());
+        assertEquals(2, engine.getDroppedCount());
+        scheduler.runAll();
+        assertEquals(List.of("0", "1", "2"), executed);
+    }
+
+    @Test
+    void cooldownDefersTheSameSender() {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 100, 10, LOGGER);
+        RewardsConfig.Action action = action("follow", new ThrottleSettings(0, 1, 1000, ThrottlePolicy.DEFER));
+        assertTrue(trigger(engine, action, "alice", "alice 1"));
+        assertFalse(trigger(engine, action, "alice", "alice 2"));
+        assertFalse(trigger(engine, action, "alice", "alice 3"));
+        assertTrue(trigger(engine, action, "bob", "bob 1"));
+        assertEquals(2, engine.getCooldownCount());
+
+        assertEquals(0, scheduler.advance(500, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.advance(600, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.advance(1, TimeUnit.SECONDS));
+        assertEquals(List.of("alice 1", "bob 1", "alice 2", "alice 3"), executed);
+    }
+
+    @Test
+    void tokensAreRefundedWhenAnotherLimitThrottles() {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 100, 10, LOGGER);
+        RewardsConfig.Action action = action("follow", new ThrottleSettings(1, 2, 10_000, ThrottlePolicy.DROP));
+        ThrottleSettings global = new ThrottleSettings(1, 3, 0, ThrottlePolicy.DROP);
+        assertTrue(trigger(engine, global, action, "alice", "alice 1"));
+        // Both buckets give their token back when the cooldown throttles the execution
+        assertFalse(trigger(engine, global, action, "alice", "alice 2"));
+        assertTrue(trigger(engine, global, action, "bob", "bob 1"));
+        assertFalse(trigger(engine, global, action, "carol", "carol 1"));
+
+        RewardsConfig.Action unlimited = action("unlimited", null);
+        assertTrue(trigger(engine, global, unlimited, "dave", "dave 1"));
+        assertFalse(trigger(engine, global, unlimited, "dave", "dave 2"));
+        assertEquals(List.of("alice 1", "bob 1", "dave 1"), executed);
+    }
+
+    @Test
+    void closeRunsEveryDeferredExecutionOnce() {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 100, 10, LOGGER);
+        RewardsConfig.Action action = action("follow", perSecond(ThrottlePolicy.DEFER));
+        for (int i = 0; i < 4; i++)
+            trigger(engine, action, "user" + i, String.valueOf(i));
+        assertEquals(1, scheduler.advance(1, TimeUnit.SECONDS));
+
+        engine.close();
+        assertEquals(List.of("0", "1", "2", "3"), executed);
+        assertEquals(0, engine.getWaitingCount());
+
+        // The scheduled runs find the executions finished already
+        scheduler.runAll();
+        assertEquals(4, executed.size());
+        assertTrue(trigger(engine, action, "user4", "4"));
+    }
+
+    @Test
+    void limitsOfRemovedActionsAreForgotten() throws InvalidConfigurationException {
+        ThrottleEngine engine = new ThrottleEngine(scheduler, 100, 10, LOGGER);
+        ThrottleSettings cooldown = new ThrottleSettings(0, 1, 10_000, ThrottlePolicy.DROP);
+        trigger(engine, action("follow", cooldown), "alice", "follow");
+        trigger(engine, action("removed", cooldown), "alice", "removed");
+        assertEquals(2, engine.getCooldownCount());
+
+        engine.retainActions(snapshot("""
+                actions:
+                  follow:
+                    action: streamlabs_follow
+                    throttle:
+                      user_cooldown_seconds: 10
+                  removed:
+                    action: streamlabs_follow
+                """));
+        assertEquals(1, engine.getCooldownCount());
+        // The kept action is still on cooldown
+        assertFalse(trigger(engine, action("follow", cooldown), "alice", "follow 2"));
+
+        engine.retainActions(snapshot("actions: {}"));
+        assertEquals(0, engine.getCooldownCount());
+    }
+}
@@ -0,0 +1,66 @@
+package me.Domplanto.streamLabs.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsAvailableRightAway() {
+        TokenBucket bucket = new TokenBucket(2, 3, 0);
+        for (int i = 0; i < 3; i++)
+            assertEquals(0, bucket.tryAcquire(0));
+
+        assertEquals(SECOND / 2, bucket.tryAcquire(0));
+        assertEquals(SECOND / 4, bucket.tryAcquire(SECOND / 4));
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void refillIsCappedAtBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+        assertEquals(0, bucket.tryAcquire(60 * SECOND));
+        assertEquals(0, bucket.tryAcquire(60 * SECOND));
+        assertEquals(SECOND / 10, bucket.tryAcquire(60 * SECOND));
+    }
+
+    @Test
+    void reserveGoesIntoDebt() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(SECOND / 2, bucket.reserve(0));
+        assertEquals(SECOND, bucket.reserve(0));
+
+        // Two tokens are owed, the next one is available once they and one more have been refilled
+        assertEquals(3 * SECOND / 2, bucket.tryAcquire(0));
+        assertEquals(SECOND / 2, bucket.tryAcquire(SECOND));
+        assertEquals(0, bucket.tryAcquire(3 * SECOND / 2));
+    }
+
+    @Test
+    void refundNeverExceedsBurst() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+        bucket.refund();
+        bucket.refund();
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+
+        bucket.refund();
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void refundPaysBackDebt() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+        bucket.reserve(0);
+        bucket.reserve(0);
+        bucket.refund();
+        assertEquals(SECOND, bucket.tryAcquire(0));
+    }
+}
@@ -0,0 +1,196 @@
+package me.Domplanto.streamLabs.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler whose clock only moves when a test advances it, tasks run on the thread that advances it.
+ * Tasks that are due at the same time run in the order they were scheduled in.
+ */
+public class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+    private final PriorityQueue<Task<?>> tasks = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+    private boolean shutdown;
+
+    /**
+     * Moves the clock forward and runs the tasks that are due by then, including the ones they schedule.
+     *
+     * @return How many tasks were run
+     */
+    public synchronized int advance(long time, TimeUnit unit) {
+        long target = now + unit.toNanos(time);
+        int run = 0;
+        Task<?> task;
+        while ((task = tasks.peek()) != null && task.dueTime <= target) {
+            tasks.poll();
+            now = Math.max(now, task.dueTime);
+            if (task.cancelled) continue;
+
+            task.run();
+            run++;
+        }
+
+        now = target;
+        return run;
+    }
+
+    /**
+     * Runs every task, however far in the future it is due.
+     */
+    public synchronized int runAll() {
+        int run = 0;
+        while (!tasks.isEmpty())
+            run += this.advance(Math.max(0, tasks.peek().dueTime - now), TimeUnit.NANOSECONDS);
+        return run;
+    }
+
+    /**
+     * @return How many tasks are waiting, cancelled ones are not counted
+     */
+    public synchronized int getPendingCount() {
+        return (int) tasks.stream().filter(task -> !task.cancelled).count();
+    }
+
+    @Override
+    public synchronized @NotNull ScheduledFuture<?> schedule(@NotNull Runnable command, long delay, @NotNull TimeUnit unit) {
+        return this.add(() -> {
+            command.run();
+            return null;
+        }, delay, unit);
+    }
+
+    @Override
+    public synchronized <V> @NotNull ScheduledFuture<V> schedule(@NotNull Callable<V> callable, long delay, @NotNull TimeUnit unit) {
+        return this.add(callable, delay, unit);
+    }
+
+    private <V> Task<V> add(Callable<V> callable, long delay, TimeUnit unit) {
+        if (shutdown) throw new IllegalStateException("The scheduler has been shut down");
+
+        Task<V> task = new Task<>(callable, now + Math.max(0, unit.toNanos(delay)), sequence++);
+        tasks.add(task);
+        return task;
+    }
+
+    @Override
+    public @NotNull ScheduledFuture<?> scheduleAtFixedRate(@NotNull Runnable command, long initialDelay, long period, @NotNull TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull ScheduledFuture<?> scheduleWithFixedDelay(@NotNull Runnable command, long initialDelay, long delay, @NotNull TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        this.schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        this.shutdown = true;
+    }
+
+    @Override
+    public synchronized @NotNull List<Runnable> shutdownNow() {
+        this.shutdown = true;
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        return pending;
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+        return shutdown && tasks.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) {
+        return this.isTerminated();
+    }
+
+    private class Task<V> implements ScheduledFuture<V>, Runnable {
+        private final Callable<V> callable;
+        private final long dueTime;
+        private final long sequence;
+        private boolean cancelled;
+        private boolean done;
+        private V result;
+
+        private Task(Callable<V> callable, long dueTime, long sequence) {
+            this.callable = callable;
+            this.dueTime = dueTime;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result = callable.call();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                done = true;
+            }
+        }
+
+        @Override
+        public long getDelay(@NotNull TimeUnit unit) {
+            synchronized (ManualScheduler.this) {
+                return unit.convert(dueTime - now, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public int compareTo(@NotNull Delayed other) {
+            Task<?> task = (Task<?>) other;
+            int compared = Long.compare(dueTime, task.dueTime);
+            return compared != 0 ? compared : Long.compare(sequence, task.sequence);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (done) return false;
+
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public V get() {
+            if (!done) throw new IllegalStateException("The task has not run yet");
+            return result;
+        }
+
+        @Override
+        public V get(long timeout, @NotNull TimeUnit unit) {
+            return this.get();
+        }
+    }
+}